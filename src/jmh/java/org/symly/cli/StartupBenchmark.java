@@ -0,0 +1,108 @@
+package org.symly.cli;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.symly.files.SyntheticTree;
+import picocli.CommandLine;
+
+/**
+ * Measures the time to first output of {@code symly status} run in a new JVM started with the options of the
+ * launchers, without and with the AppCDS archive created by the launchers from the class list of the build training
+ * runs.
+ * <p>The packaged jar and the class list are given by the {@code symly.benchmarks.jar} and
+ * {@code symly.benchmarks.class-list} system properties, set by the {@code benchmarks} profile. The class list is
+ * only generated when the {@code class-list} profile is enabled as well. The JVM is killed as soon as its first output
+ * is read.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StartupBenchmark {
+
+    private static final String JAVA_BINARY = "%s/bin/java".formatted(System.getProperty("java.home"));
+    private static final List<String> LAUNCHER_JVM_OPTIONS = List.of("-XX:+NeverActAsServerClassMachine");
+    private static final String MAIN_CLASS = "org.symly.cli.Main";
+
+    @Param({"none", "appcds"})
+    public String archive;
+
+    private Path root;
+
+    private List<String> command;
+
+    @Setup(Level.Trial)
+    public void createTreeAndArchive() throws IOException, InterruptedException, URISyntaxException {
+        root = SyntheticTree.createRoot();
+        Path repository = root.resolve("repository");
+        SyntheticTree.createFiles(repository, 100, i -> true);
+        Files.createDirectories(root.resolve("home"));
+        String classpath = String.join(
+                File.pathSeparator,
+                requiredPath("symly.benchmarks.jar").toString(),
+                Path.of(CommandLine.class
+                                .getProtectionDomain()
+                                .getCodeSource()
+                                .getLocation()
+                                .toURI())
+                        .toString());
+        command = new ArrayList<>();
+        command.add(JAVA_BINARY);
+        command.addAll(LAUNCHER_JVM_OPTIONS);
+        if (archive.equals("appcds")) {
+            Path archiveFile = root.resolve("symly.jsa");
+            Process dump = new ProcessBuilder(
+                            JAVA_BINARY,
+                            "-Xshare:dump",
+                            "-XX:SharedClassListFile=%s".formatted(requiredPath("symly.benchmarks.class-list")),
+                            "-XX:SharedArchiveFile=%s".formatted(archiveFile),
+                            "--class-path",
+                            classpath)
+                    .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+                    .redirectError(ProcessBuilder.Redirect.DISCARD)
+                    .start();
+            if (dump.waitFor() != 0) {
+                throw new IllegalStateException("Unable to create the AppCDS archive " + archiveFile);
+            }
+            command.add("-XX:SharedArchiveFile=%s".formatted(archiveFile));
+        }
+        command.addAll(List.of("--class-path", classpath, MAIN_CLASS));
+        command.addAll(List.of("status", "--dir", "home", "--repositories", repository.toString()));
+    }
+
+    private static Path requiredPath(String property) {
+        String value = System.getProperty(property);
+        if (value == null) {
+            throw new IllegalStateException("System property %s is not defined".formatted(property));
+        }
+        return Path.of(value).toAbsolutePath();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteTree() throws IOException {
+        SyntheticTree.delete(root);
+    }
+
+    @Benchmark
+    public int timeToFirstOutput() throws IOException, InterruptedException {
+        Process process = new ProcessBuilder(command)
+                .directory(root.toFile())
+                .redirectErrorStream(true)
+                .start();
+        try (InputStream output = process.getInputStream()) {
+            return output.read();
+        } finally {
+            process.destroyForcibly().waitFor();
+        }
+    }
+}
@@ -0,0 +1,118 @@
+package org.symly.cli;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Regression gate of the startup of the CLI: {@code symly status} is run in a new JVM, started with the options of the
+ * launchers, and must not load more classes, nor take longer to print its first output, than the budgets below.
+ * <p>The class loading budget is deterministic for a given JVM and is the one to update when a change legitimately
+ * loads more classes. The time to first output budget is generous so that it only catches gross regressions on slow
+ * machines.</p>
+ * <p>As both budgets depend on the machine and on the JVM, this test is only run by the {@code benchmarks} profile.</p>
+ */
+@SuppressWarnings({
+    "java:S100", // Method names should comply with a naming convention (test method names)
+})
+class StartupTest {
+
+    private static final int CLASS_LOADING_BUDGET = 1_800;
+    private static final Duration TIME_TO_FIRST_OUTPUT_BUDGET = Duration.ofSeconds(3);
+    private static final long TIMEOUT = 10L;
+
+    private static final String JAVA_BINARY = "%s/bin/java".formatted(System.getProperty("java.home"));
+    private static final List<String> LAUNCHER_JVM_OPTIONS = List.of("-XX:+NeverActAsServerClassMachine");
+    private static final String MAIN_CLASS = "org.symly.cli.Main";
+
+    @TempDir
+    private Path root;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createDirectories(root.resolve("home/user"));
+        Files.createDirectories(root.resolve("repository/.config/app"));
+        Files.createFile(root.resolve("repository/.config/app/settings"));
+        Files.createFile(root.resolve("repository/.profile"));
+    }
+
+    @Test
+    void status_shouldNotLoadMoreClasses_thanTheBudget() throws IOException, InterruptedException {
+        // given
+        Path classLoadingLog = root.resolve("class-loading.log");
+        // when
+        run("-Xlog:class+load=info:file=%s".formatted(classLoadingLog));
+        // then
+        long loadedClasses;
+        try (Stream<String> lines = Files.lines(classLoadingLog)) {
+            loadedClasses = lines.filter(line -> line.contains("[class,load]")).count();
+        }
+        assertThat(loadedClasses <= CLASS_LOADING_BUDGET)
+                .withFailMessage(
+                        "%d classes loaded, above the budget of %d classes", loadedClasses, CLASS_LOADING_BUDGET)
+                .isTrue();
+    }
+
+    @Test
+    void status_shouldPrintFirstOutput_withinTheBudget() throws IOException, InterruptedException {
+        // when
+        Duration timeToFirstOutput = run();
+        // then
+        assertThat(timeToFirstOutput.compareTo(TIME_TO_FIRST_OUTPUT_BUDGET) <= 0)
+                .withFailMessage(
+                        "First output printed after %d ms, above the budget of %d ms",
+                        timeToFirstOutput.toMillis(), TIME_TO_FIRST_OUTPUT_BUDGET.toMillis())
+                .isTrue();
+    }
+
+    /**
+     * Runs {@code symly status} and returns the time elapsed between the start of the JVM and its first output.
+     */
+    private Duration run(String... jvmOptions) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(JAVA_BINARY);
+        command.addAll(LAUNCHER_JVM_OPTIONS);
+        command.addAll(List.of(jvmOptions));
+        command.add("-Duser.home=%s".formatted(root.resolve("home/user")));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(MAIN_CLASS);
+        command.addAll(List.of(
+                "status",
+                "--dir",
+                "~",
+                "--repositories",
+                root.resolve("repository").toString()));
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(command)
+                .directory(root.toFile())
+                .redirectErrorStream(true)
+                .start();
+        Duration timeToFirstOutput;
+        try (InputStream output = process.getInputStream()) {
+            int firstByte = output.read();
+            timeToFirstOutput = Duration.ofNanos(System.nanoTime() - start);
+            assertThat(firstByte >= 0).withFailMessage("No output printed").isTrue();
+            output.transferTo(OutputStream.nullOutputStream());
+        }
+        boolean finished = process.waitFor(TIMEOUT, TimeUnit.SECONDS);
+        if (!finished) {
+            process.destroyForcibly();
+        }
+        assertThat(finished).withFailMessage("Command did not finish in time").isTrue();
+        assertThat(process.exitValue()).isEqualTo(0);
+        return timeToFirstOutput;
+    }
+}
@@ -0,0 +1,110 @@
+package org.symly.files;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
+
+/**
+ * Generates the file trees on which the benchmarks run.
+ * <p>Trees are created in a tmpfs when one is available so that the benchmarks are not bound to the disk speed. Their
+ * files are spread in directories of {@value #FILES_PER_DIRECTORY} files, themselves grouped by
+ * {@value #DIRECTORIES_PER_GROUP}: file {@code i} is {@code dir-<g>/sub-<d>/file-<i>}.</p>
+ */
+public final class SyntheticTree {
+
+    public static final int FILES_PER_DIRECTORY = 100;
+    public static final int DIRECTORIES_PER_GROUP = 100;
+
+    private SyntheticTree() {}
+
+    /**
+     * Creates an empty directory in the tmpfs, or in the default temporary directory if no tmpfs is available.
+     *
+     * @return the created directory
+     * @throws IOException if the directory cannot be created
+     */
+    public static Path createRoot() throws IOException {
+        return Files.createTempDirectory(temporaryDirectory(), "symly-benchmark-");
+    }
+
+    private static Path temporaryDirectory() {
+        Path sharedMemory = Path.of("/dev/shm");
+        if (Files.isDirectory(sharedMemory) && Files.isWritable(sharedMemory)) {
+            return sharedMemory;
+        }
+        return Path.of(System.getProperty("java.io.tmpdir"));
+    }
+
+    /**
+     * Returns the name of the {@code i}-th file of a tree.
+     *
+     * @param i the index of the file
+     * @return the path of the file, relative to the root of the tree
+     */
+    public static Path name(int i) {
+        int directory = i / FILES_PER_DIRECTORY;
+        return Path.of(
+                "dir-" + directory / DIRECTORIES_PER_GROUP, "sub-" + directory % DIRECTORIES_PER_GROUP, "file-" + i);
+    }
+
+    /**
+     * Creates the files of a tree which index is accepted by {@code filter}.
+     *
+     * @param root the root of the tree
+     * @param files the number of files of the complete tree
+     * @param filter the indexes of the files to create
+     * @throws IOException if a file cannot be created
+     */
+    public static void createFiles(Path root, int files, IntPredicate filter) throws IOException {
+        Path directory = null;
+        for (int i = 0; i < files; i++) {
+            if (filter.test(i)) {
+                Path file = root.resolve(name(i));
+                if (!file.getParent().equals(directory)) {
+                    directory = Files.createDirectories(file.getParent());
+                }
+                Files.createFile(file);
+            }
+        }
+    }
+
+    /**
+     * Creates the layers of a repository tree. Each file of the tree belongs to one of the layers, except every tenth
+     * file which belongs to all of them, hence is shadowed by the layers of higher priority.
+     *
+     * @param root the directory in which the layers are created
+     * @param files the number of files of the tree
+     * @param layers the number of layers
+     * @return the roots of the layers, the base one first
+     * @throws IOException if a file cannot be created
+     */
+    public static List<Path> createLayers(Path root, int files, int layers) throws IOException {
+        List<Path> roots = new ArrayList<>();
+        for (int l = 0; l < layers; l++) {
+            int layer = l;
+            Path layerRoot = Files.createDirectories(root.resolve("layer-" + layer));
+            createFiles(layerRoot, files, i -> i % layers == layer || i % 10 == 0);
+            roots.add(layerRoot);
+        }
+        return roots;
+    }
+
+    /**
+     * Deletes a tree.
+     *
+     * @param root the root of the tree
+     * @throws IOException if the tree cannot be deleted
+     */
+    public static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package org.symly.links;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+import org.symly.files.FileSystemReader;
+import org.symly.files.InMemoryFileSystem;
+import org.symly.files.SyntheticTree;
+import org.symly.repositories.MainDirectory;
+import org.symly.repositories.Repositories;
+import org.symly.repositories.Repository;
+
+/**
+ * Measures the computation of the status of a main directory linked to 1 to 10 layers sharing a tree of 1k to 1M
+ * files: the iteration of the {@link LinkStateIterator}, and the computation of the actions bringing the link states
+ * up to date by {@link LinkState#toActions(FileSystemReader, boolean)}.
+ * <p>Nine links out of ten already exist in the main directory, the other ones are missing. One link out of a hundred
+ * is doubled by an orphan link in the same directory. The trees are read either from the disk, or from an
+ * {@link InMemoryFileSystem} snapshot of it.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkStatusBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int files;
+
+    @Param({"1", "10"})
+    public int layers;
+
+    @Param({"disk", "memory"})
+    public String fileSystem;
+
+    private FileSystemReader fsReader = new FileSystemReader.RealFileSystemReader();
+
+    private Path root;
+
+    private Context context;
+
+    private List<LinkState> linkStates;
+
+    @Setup(Level.Trial)
+    public void createMainDirectory() throws IOException {
+        root = SyntheticTree.createRoot();
+        List<Path> layerRoots = SyntheticTree.createLayers(root.resolve("repositories"), files, layers);
+        MainDirectory mainDirectory = MainDirectory.of(root.resolve("main"));
+        Repositories repositories = Repositories.of(
+                fsReader, layerRoots.stream().map(Repository::of).toList());
+        List<Link> links;
+        try (Stream<Link> stream = repositories.links(mainDirectory)) {
+            links = stream.toList();
+        }
+        for (int i = 0; i < links.size(); i++) {
+            Link link = links.get(i);
+            if (i % 10 != 9) {
+                Files.createDirectories(link.source().getParent());
+                Files.createSymbolicLink(link.source(), link.target());
+            }
+            if (i % 100 == 0) {
+                Path orphan = link.source().resolveSibling("orphan-" + i);
+                Files.createDirectories(orphan.getParent());
+                Files.createSymbolicLink(orphan, link.target().resolveSibling("orphan-" + i));
+            }
+        }
+        if (fileSystem.equals("memory")) {
+            fsReader = InMemoryFileSystem.snapshot(fsReader, root);
+            repositories = Repositories.of(
+                    fsReader, layerRoots.stream().map(Repository::of).toList());
+        }
+        context = new Context(mainDirectory, repositories, OrphanLookup.of(mainDirectory, 2), null);
+        try (Stream<LinkState> status = context.status(fsReader)) {
+            linkStates = status.toList();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteMainDirectory() throws IOException {
+        SyntheticTree.delete(root);
+    }
+
+    @Benchmark
+    public long status() {
+        LinkStateIterator iterator =
+                new LinkStateIterator(context, fsReader, context.repositories().scan());
+        long count = 0;
+        while (iterator.hasNext()) {
+            iterator.next();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public long toActions() {
+        long count = 0;
+        for (LinkState linkState : linkStates) {
+            count += linkState.toActions(fsReader, false).size();
+        }
+        return count;
+    }
+}
@@ -0,0 +1,42 @@
+package org.symly.repositories;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import org.openjdk.jmh.annotations.*;
+
+/**
+ * Measures {@link IgnoreList#parse(java.util.stream.Stream)} on {@code .symlyignore} files of 10 to 1000 lines,
+ * mixing comments, blank lines, literal names and wildcard expressions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IgnoreListParseBenchmark {
+
+    @Param({"10", "100", "1000"})
+    public int lines;
+
+    private List<String> content;
+
+    @Setup(Level.Trial)
+    public void createContent() {
+        content = IntStream.range(0, lines)
+                .mapToObj(i -> switch (i % 5) {
+                    case 0 -> "# comment " + i;
+                    case 1 -> "";
+                    case 2 -> "name-" + i;
+                    case 3 -> "*.extension-" + i;
+                    default -> "prefix-" + i + "*.tmp # trailing comment";
+                })
+                .toList();
+    }
+
+    @Benchmark
+    public int parse() {
+        return IgnoreList.parse(content.stream()).size();
+    }
+}
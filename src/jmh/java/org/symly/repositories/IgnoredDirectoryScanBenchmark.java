@@ -0,0 +1,68 @@
+package org.symly.repositories;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+import org.symly.files.FileSystemReader;
+import org.symly.files.SyntheticTree;
+
+/**
+ * Measures the scan of a repository containing a vendored directory of 100k files, with and without a
+ * {@code .symlyignore} rule excluding it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class IgnoredDirectoryScanBenchmark {
+
+    private static final String VENDORED_DIRECTORY = "node_modules";
+    private static final int VENDORED_DIRECTORIES = 100;
+    private static final int VENDORED_FILES_PER_DIRECTORY = 1_000;
+    private static final int REPOSITORY_FILES = 100;
+
+    @Param({"true", "false"})
+    public boolean ignoreVendoredDirectory;
+
+    private final FileSystemReader fsReader = new FileSystemReader.RealFileSystemReader();
+
+    private Path root;
+
+    private Repository repository;
+
+    @Setup(Level.Trial)
+    public void createRepository() throws IOException {
+        root = SyntheticTree.createRoot();
+        for (int i = 0; i < REPOSITORY_FILES; i++) {
+            Files.createFile(root.resolve("file-" + i));
+        }
+        for (int i = 0; i < VENDORED_DIRECTORIES; i++) {
+            Path directory =
+                    Files.createDirectories(root.resolve(VENDORED_DIRECTORY).resolve("package-" + i));
+            for (int j = 0; j < VENDORED_FILES_PER_DIRECTORY; j++) {
+                Files.createFile(directory.resolve("file-" + j));
+            }
+        }
+        if (ignoreVendoredDirectory) {
+            Files.writeString(root.resolve(IgnoreList.SYMLY_IGNORE), VENDORED_DIRECTORY);
+        }
+        repository = Repository.of(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRepository() throws IOException {
+        SyntheticTree.delete(root);
+    }
+
+    @Benchmark
+    public long scan() {
+        try (Stream<RepositoryEntry> entries = repository.entries(fsReader)) {
+            return entries.count();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package org.symly.repositories;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.symly.files.FileSystemReader;
+import org.symly.repositories.MergedLayers.LayeredEntry;
+
+/**
+ * Measures the resolution of the shadowed entries of two layers: the first one containing directory links, the second
+ * one containing 500k files, half of which are located in the linked directories. The entries are submitted in the
+ * order in which {@link MergedLayers} returns them.
+ * <p>The resolution time should not depend on the number of directory links.</p>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LinkedEntriesBenchmark {
+
+    private static final int FILES = 500_000;
+
+    @Param({"100", "1000", "10000"})
+    public int directoryLinks;
+
+    private final List<LayeredEntry> entries = new ArrayList<>();
+
+    @Setup(Level.Trial)
+    public void createEntries() {
+        Path layer1 = Path.of("/layer1");
+        Path layer2 = Path.of("/layer2");
+        for (int i = 0; i < directoryLinks; i++) {
+            Path name = Path.of("linked-" + i);
+            entries.add(new LayeredEntry(
+                    RepositoryEntry.of(name, layer1.resolve(name), RepositoryEntry.Type.DIRECTORY, true), 0));
+        }
+        int filesPerDirectory = FILES / directoryLinks / 2;
+        for (int i = 0; i < directoryLinks; i++) {
+            for (int j = 0; j < filesPerDirectory; j++) {
+                Path linked = Path.of("linked-" + i, "sub", "file-" + j);
+                entries.add(new LayeredEntry(
+                        RepositoryEntry.of(linked, layer2.resolve(linked), RepositoryEntry.Type.FILE), 1));
+                Path notLinked = Path.of("not-linked-" + i, "sub", "file-" + j);
+                entries.add(new LayeredEntry(
+                        RepositoryEntry.of(notLinked, layer2.resolve(notLinked), RepositoryEntry.Type.FILE), 1));
+            }
+        }
+        entries.sort(Comparator.comparing(
+                        (LayeredEntry layeredEntry) -> layeredEntry.entry().name(), FileSystemReader.WALK_ORDER)
+                .thenComparingInt(LayeredEntry::priority));
+    }
+
+    @Benchmark
+    public int resolve() {
+        LinkedEntries linkedEntries = new LinkedEntries();
+        int linked = 0;
+        for (LayeredEntry entry : entries) {
+            if (linkedEntries.link(entry)) {
+                linked++;
+            }
+        }
+        return linked;
+    }
+}
@@ -0,0 +1,64 @@
+package org.symly.repositories;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+import org.symly.files.FileSystemReader;
+import org.symly.files.SyntheticTree;
+import org.symly.links.Link;
+
+/**
+ * Measures {@link Repositories#links(MainDirectory)} on 1 to 10 layers sharing a tree of 1k to 1M files, every tenth
+ * file being shadowed by the layers of higher priority.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoriesLinksBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int files;
+
+    @Param({"1", "10"})
+    public int layers;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    private final FileSystemReader fsReader = new FileSystemReader.RealFileSystemReader();
+
+    private Path root;
+
+    private MainDirectory mainDirectory;
+
+    private Repositories repositories;
+
+    @Setup(Level.Trial)
+    public void createRepositories() throws IOException {
+        root = SyntheticTree.createRoot();
+        List<Repository> layerRepositories =
+                SyntheticTree.createLayers(root.resolve("repositories"), files, layers).stream()
+                        .map(Repository::of)
+                        .toList();
+        mainDirectory = MainDirectory.of(root.resolve("main"));
+        repositories = Repositories.of(fsReader, layerRepositories, parallel);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRepositories() throws IOException {
+        SyntheticTree.delete(root);
+    }
+
+    @Benchmark
+    public long links() {
+        try (Stream<Link> links = repositories.links(mainDirectory)) {
+            return links.count();
+        }
+    }
+}
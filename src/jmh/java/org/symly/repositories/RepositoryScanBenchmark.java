@@ -0,0 +1,63 @@
+package org.symly.repositories;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+import org.symly.files.FileSystemReader;
+import org.symly.files.SyntheticTree;
+
+/**
+ * Measures {@link Repository#entries(FileSystemReader)} on a repository of 1k to 1M files, with a {@code .symlyignore}
+ * file of up to 100 rules, none of which ignores any file.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RepositoryScanBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int files;
+
+    @Param({"0", "10", "100"})
+    public int ignoreRules;
+
+    private final FileSystemReader fsReader = new FileSystemReader.RealFileSystemReader();
+
+    private Path root;
+
+    private Repository repository;
+
+    @Setup(Level.Trial)
+    public void createRepository() throws IOException {
+        root = SyntheticTree.createRoot();
+        SyntheticTree.createFiles(root, files, i -> true);
+        if (ignoreRules > 0) {
+            Files.writeString(
+                    root.resolve(IgnoreList.SYMLY_IGNORE),
+                    IntStream.range(0, ignoreRules)
+                            .mapToObj(i -> "*.ignored-" + i)
+                            .collect(Collectors.joining("\n")));
+        }
+        repository = Repository.of(root);
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteRepository() throws IOException {
+        SyntheticTree.delete(root);
+    }
+
+    @Benchmark
+    public long entries() {
+        try (Stream<RepositoryEntry> entries = repository.entries(fsReader)) {
+            return entries.count();
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package org.symly.cli;
 
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.nio.charset.StandardCharsets;
@@ -9,37 +13,74 @@ import java.util.function.Supplier;
 import org.symly.files.FileSystemReader;
 import org.symly.files.FileSystemWriter;
 import org.symly.files.FileSystemWriterImpl;
+import org.symly.stats.Stats;
 import picocli.CommandLine;
 
 public class BeanFactory implements CommandLine.IFactory {
 
+    /**
+     * The size in characters of the buffer of the standard output when it is not a terminal.
+     */
+    private static final int OUTPUT_BUFFER_SIZE = 64 * 1024;
+
     private final Map<Class<?>, Supplier<?>> constructors = new HashMap<>();
 
     private final Map<Class<?>, Object> beans = new HashMap<>();
 
     private final CommandLine.IFactory parentFactory = CommandLine.defaultFactory();
 
-    @SuppressWarnings({
-        // Standard outputs should not be used directly to log anything: CLI tool
-        "java:S106"
-    })
     public BeanFactory() {
         register(Config.class, Config::new);
-        register(CliConsole.class, () -> new CliConsole(printWriter(System.out), printWriter(System.err)));
+        register(CliConsole.class, BeanFactory::console);
+        register(Stats.class, Stats::new);
+        // The commands record the file system calls if the statistics are enabled by the --stats option
         register(FileSystemReader.class, FileSystemReader.RealFileSystemReader::new);
         register(FileSystemWriter.class, FileSystemWriterImpl::new);
         register(VersionProvider.class, () -> new VersionProvider(get(Config.class)));
-        register(MainCommand.class, () -> new MainCommand(get(Config.class), get(CliConsole.class)));
+        register(MainCommand.class, () -> new MainCommand(get(Config.class), get(CliConsole.class), get(Stats.class)));
         register(ExceptionHandler.class, () -> new ExceptionHandler(get(Config.class), get(CliConsole.class)));
         register(
                 LinkCommand.class,
-                () -> new LinkCommand(get(CliConsole.class), get(FileSystemReader.class), get(FileSystemWriter.class)));
+                () -> new LinkCommand(
+                        get(CliConsole.class),
+                        get(FileSystemReader.class),
+                        get(FileSystemWriter.class),
+                        get(Stats.class)));
         register(
                 UnlinkCommand.class,
                 () -> new UnlinkCommand(
-                        get(CliConsole.class), get(FileSystemReader.class), get(FileSystemWriter.class)));
-        register(StatusCommand.class, () -> new StatusCommand(get(CliConsole.class), get(FileSystemReader.class)));
-        register(ContextInput.class, () -> new ContextInput(get(FileSystemReader.class)));
+                        get(CliConsole.class),
+                        get(FileSystemReader.class),
+                        get(FileSystemWriter.class),
+                        get(Stats.class)));
+        register(
+                StatusCommand.class,
+                () -> new StatusCommand(get(CliConsole.class), get(FileSystemReader.class), get(Stats.class)));
+        register(
+                WatchCommand.class,
+                () -> new WatchCommand(get(CliConsole.class), get(FileSystemReader.class), get(Stats.class)));
+        register(ContextInput.class, () -> new ContextInput(get(FileSystemReader.class), get(Stats.class)));
+    }
+
+    /**
+     * Creates a console which standard output is flushed after each line when it is a terminal. Otherwise, it is
+     * redirected to a file or a pipe and is written through a large buffer, bypassing {@code System.out} which flushes
+     * every line.
+     */
+    @SuppressWarnings({
+        // Standard outputs should not be used directly to log anything: CLI tool
+        "java:S106"
+    })
+    private static CliConsole console() {
+        if (System.console() != null) {
+            return new CliConsole(printWriter(System.out), printWriter(System.err));
+        }
+        PrintWriter out = new PrintWriter(
+                new BufferedWriter(
+                        new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8),
+                        OUTPUT_BUFFER_SIZE),
+                false);
+        return new CliConsole(out, printWriter(System.err), true);
     }
 
     private static PrintWriter printWriter(PrintStream outputStream) {
@@ -1,18 +1,41 @@
 package org.symly.cli;
 
 import java.io.PrintWriter;
+import java.io.Writer;
 import java.lang.System.Logger.Level;
 
 public class CliConsole {
 
+    /**
+     * The number of writes to a buffered standard output between two checks of its error state, each check flushing
+     * it.
+     */
+    private static final int ERROR_CHECK_INTERVAL = 1024;
+
     private final PrintWriter out;
     private final PrintWriter err;
 
+    /**
+     * Whether the standard output is buffered, in which case it is only flushed at the phase boundaries of the
+     * commands, before anything is written to the standard error output, and on exit.
+     */
+    private final boolean buffered;
+
     private Level currentLevel = Level.INFO;
 
+    private int writesSinceErrorCheck = 0;
+
+    private boolean outputClosed = false;
+
     public CliConsole(PrintWriter out, PrintWriter err) {
+        this(out, err, false);
+    }
+
+    public CliConsole(PrintWriter out, PrintWriter err, boolean buffered) {
         this.out = out;
-        this.err = err;
+        // The standard output is flushed first so that both outputs are written in order
+        this.err = buffered ? new PrintWriter(new OrderedErrorWriter(out, err), true) : err;
+        this.buffered = buffered;
     }
 
     public void enableVerboseMode() {
@@ -26,7 +49,9 @@ public class CliConsole {
     public void printf(Level level, String format, Object... args) {
         if (shouldPrintForLevel(level)) {
             out.printf(format, args);
-            out.flush();
+            if (!buffered || ++writesSinceErrorCheck >= ERROR_CHECK_INTERVAL) {
+                checkOutput();
+            }
         }
     }
 
@@ -44,6 +69,24 @@ public class CliConsole {
         }
     }
 
+    /**
+     * Returns whether the standard output can no longer be written to, typically because the process reading it
+     * through a pipe has exited (e.g. {@code symly status | head}). Commands can then stop producing their output.
+     * <p>As {@link PrintWriter} swallows write errors, its error state is checked after each write to an unbuffered
+     * output, and periodically for a buffered one.</p>
+     *
+     * @return whether the standard output has been closed
+     */
+    public boolean outputClosed() {
+        return outputClosed;
+    }
+
+    private void checkOutput() {
+        writesSinceErrorCheck = 0;
+        // Flushes the output before checking its error state
+        outputClosed = out.checkError();
+    }
+
     private boolean shouldPrintForLevel(Level level) {
         return level.compareTo(currentLevel) >= 0;
     }
@@ -56,8 +99,42 @@ public class CliConsole {
         return err;
     }
 
+    /**
+     * Flushes both outputs. Commands call it at their phase boundaries, so that the output of a phase is not held in
+     * the buffer of a buffered output while the next one runs.
+     */
     public void flush() {
         err.flush();
-        out.flush();
+        checkOutput();
+    }
+
+    /**
+     * Writes to the standard error output once the standard output has been flushed.
+     */
+    private static class OrderedErrorWriter extends Writer {
+
+        private final PrintWriter out;
+        private final PrintWriter err;
+
+        OrderedErrorWriter(PrintWriter out, PrintWriter err) {
+            this.out = out;
+            this.err = err;
+        }
+
+        @Override
+        public void write(char[] cbuf, int off, int len) {
+            out.flush();
+            err.write(cbuf, off, len);
+        }
+
+        @Override
+        public void flush() {
+            err.flush();
+        }
+
+        @Override
+        public void close() {
+            err.close();
+        }
     }
 }
@@ -4,12 +4,18 @@ import static java.util.function.Predicate.not;
 
 import java.nio.file.Path;
 import java.util.*;
+import org.symly.files.DirectoryCache;
 import org.symly.files.FileSystemReader;
+import org.symly.files.InstrumentedFileSystemReader;
 import org.symly.links.Context;
+import org.symly.links.LinkManifest;
+import org.symly.links.OrphanLookup;
 import org.symly.repositories.ContextConfig;
 import org.symly.repositories.MainDirectory;
 import org.symly.repositories.Repositories;
 import org.symly.repositories.Repository;
+import org.symly.stats.Stats;
+import org.symly.stats.Stats.Phase;
 import org.symly.validation.Constraint;
 import org.symly.validation.Validator;
 import picocli.CommandLine;
@@ -21,6 +27,8 @@ public class ContextInput {
 
     private final FileSystemReader fsReader;
 
+    private final Stats stats;
+
     @Option(
             names = {"-d", "--dir", "--directory"},
             paramLabel = "<main-directory>",
@@ -57,10 +65,20 @@ public class ContextInput {
             showDefaultValue = CommandLine.Help.Visibility.ALWAYS)
     Integer maxDepth;
 
+    @Option(
+            names = {"--parallel"},
+            description =
+                    """
+            Scan the repositories and update the links concurrently. \
+            If not given as a command line argument, symly will look for the 'parallel' property \
+            in the symly.config file present in the current working directory.""")
+    Boolean parallel;
+
     private Validator validator;
 
-    public ContextInput(FileSystemReader fsReader) {
+    public ContextInput(FileSystemReader fsReader, Stats stats) {
         this.fsReader = Objects.requireNonNull(fsReader);
+        this.stats = Objects.requireNonNull(stats);
     }
 
     @Spec
@@ -69,34 +87,55 @@ public class ContextInput {
         validator = new Validator(spec);
     }
 
-    public Context context() {
-        ContextConfig contextConfig = ContextConfig.read(fsReader);
-        MainDirectory mainDirectory = mainDirectory(contextConfig);
-        Repositories repositories = repositories(contextConfig);
-        int orphanMaxDepth = orphanMaxDepth(contextConfig);
-        return new Context(mainDirectory, repositories, orphanMaxDepth);
+    /**
+     * Returns the context, which repositories are read with the given reader. Loading it is timed as the
+     * {@link Phase#CONFIG_LOAD}.
+     *
+     * @param repositoriesReader the reader with which the repositories are read
+     * @return the context
+     */
+    public Context context(FileSystemReader repositoriesReader) {
+        FileSystemReader configReader = InstrumentedFileSystemReader.of(fsReader, stats);
+        return stats.time(Phase.CONFIG_LOAD, () -> loadContext(configReader, repositoriesReader));
     }
 
-    private MainDirectory mainDirectory(ContextConfig contextConfig) {
+    private Context loadContext(FileSystemReader configReader, FileSystemReader repositoriesReader) {
+        ContextConfig contextConfig = ContextConfig.read(configReader);
+        MainDirectory mainDirectory = mainDirectory(contextConfig, configReader);
+        Repositories repositories = repositories(contextConfig, configReader, repositoriesReader);
+        OrphanLookup orphanLookup = OrphanLookup.of(
+                mainDirectory,
+                orphanMaxDepth(contextConfig),
+                contextConfig.orphanExclusions(),
+                orphanMaxDepthOverrides(contextConfig));
+        LinkManifest manifest =
+                contextConfig.manifest() ? LinkManifest.load(LinkManifest.defaultFile(mainDirectory)) : null;
+        return new Context(mainDirectory, repositories, orphanLookup, manifest, stats);
+    }
+
+    private MainDirectory mainDirectory(ContextConfig contextConfig, FileSystemReader configReader) {
         MainDirectory mainDirectory = Optional.ofNullable(mainDirectoryPath)
                 .or(contextConfig::directory)
                 .map(MainDirectory::of)
                 .orElseThrow(() -> validator.violation("Main directory is not defined"));
         validator.validate(Constraint.of(
                 "Main directory (%s) is not an existing directory".formatted(mainDirectory),
-                () -> fsReader.isADirectory(mainDirectory)));
+                () -> configReader.isADirectory(mainDirectory)));
         return mainDirectory;
     }
 
-    private Repositories repositories(ContextConfig contextConfig) {
+    private Repositories repositories(
+            ContextConfig contextConfig, FileSystemReader configReader, FileSystemReader repositoriesReader) {
         Repositories repositories = Repositories.of(
-                fsReader,
+                repositoriesReader,
                 Optional.ofNullable(repositoriesPaths)
                         .filter(not(Collection::isEmpty))
                         .orElseGet(contextConfig::repositories)
                         .stream()
                         .map(Repository::of)
-                        .toList());
+                        .toList(),
+                Optional.ofNullable(parallel).orElseGet(contextConfig::parallel),
+                contextConfig.cache() ? DirectoryCache.load(DirectoryCache.defaultFile()) : null);
         Collection<Constraint> constraints = new ArrayList<>();
         constraints.add(Constraint.of(
                 "Repositories are not defined",
@@ -105,7 +144,7 @@ public class ContextInput {
                 .repositories()
                 .forEach(repository -> constraints.add(Constraint.of(
                         "Repository (%s) is not an existing directory".formatted(repository.toPath()),
-                        () -> fsReader.isADirectory(repository))));
+                        () -> configReader.isADirectory(repository))));
         validator.validate(constraints);
         return repositories;
     }
@@ -117,4 +156,14 @@ public class ContextInput {
                 () -> orphanMaxDepth >= 0));
         return orphanMaxDepth;
     }
+
+    private Map<Path, Integer> orphanMaxDepthOverrides(ContextConfig contextConfig) {
+        Map<Path, Integer> overrides = contextConfig.orphanMaxDepthOverrides();
+        validator.validate(overrides.values().stream()
+                .map(maxDepth -> Constraint.of(
+                        "Orphan lookup max-depth (%s) must be a positive integer".formatted(maxDepth),
+                        () -> maxDepth >= 0))
+                .toList());
+        return overrides;
+    }
 }
@@ -1,13 +1,17 @@
 package org.symly.cli;
 
 import java.lang.System.Logger.Level;
-import java.util.List;
+import java.nio.file.Path;
 import java.util.Objects;
 import org.symly.Result;
 import org.symly.files.FileSystemReader;
 import org.symly.files.FileSystemWriter;
+import org.symly.files.InstrumentedFileSystemReader;
+import org.symly.files.InstrumentedFileSystemWriter;
 import org.symly.files.NoOpFileSystemWriter;
 import org.symly.links.*;
+import org.symly.stats.Stats;
+import org.symly.stats.Stats.Phase;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
@@ -38,24 +42,49 @@ class LinkCommand implements Runnable {
                     + "conflicts")
     boolean force = false;
 
+    @Option(
+            names = {"--full-scan"},
+            description =
+                    """
+            Look up orphan links by walking the main directory, even if a manifest of the links is kept, \
+            to delete the orphan links which were not created by symly.""")
+    boolean fullScan = false;
+
     private final CliConsole console;
 
-    private final FileSystemReader fsReader;
+    private final FileSystemReader fileSystemReader;
 
     private final FileSystemWriter fileSystemWriter;
 
+    private final Stats stats;
+
+    private FileSystemReader fsReader;
+
     private int updates;
     private Context context;
 
-    public LinkCommand(CliConsole console, FileSystemReader fsReader, FileSystemWriter fileSystemWriter) {
+    /**
+     * The manifest in which the links are recorded, kept when the orphan links are not looked up through it.
+     */
+    private LinkManifest manifest;
+
+    public LinkCommand(
+            CliConsole console, FileSystemReader fileSystemReader, FileSystemWriter fileSystemWriter, Stats stats) {
         this.console = Objects.requireNonNull(console);
-        this.fsReader = Objects.requireNonNull(fsReader);
+        this.fileSystemReader = Objects.requireNonNull(fileSystemReader);
         this.fileSystemWriter = Objects.requireNonNull(fileSystemWriter);
+        this.stats = Objects.requireNonNull(stats);
     }
 
     @Override
     public void run() {
-        context = contextInput.context();
+        // The statistics are enabled while the options are parsed, after the command is created
+        fsReader = InstrumentedFileSystemReader.of(fileSystemReader, stats);
+        context = contextInput.context(fsReader);
+        manifest = context.manifest();
+        if (fullScan) {
+            context = context.withoutManifest();
+        }
         updates = 0;
         console.printf(Level.DEBUG, "Creating links ");
         if (dryRun) {
@@ -66,6 +95,7 @@ class LinkCommand implements Runnable {
                 "in %s to %s%n",
                 context.mainDirectory(),
                 context.repositories().repositories());
+        console.flush();
         FileSystemWriter mutator = getFilesMutatorService();
         createLinks(mutator);
         if (updates == 0) {
@@ -77,26 +107,63 @@ class LinkCommand implements Runnable {
         if (dryRun) {
             return new NoOpFileSystemWriter();
         }
-        return fileSystemWriter;
+        return InstrumentedFileSystemWriter.of(fileSystemWriter, stats);
     }
 
     private void createLinks(FileSystemWriter fsWriter) {
+        ActionExecutor executor = new ActionExecutor(
+                fsReader, fsWriter, force, !dryRun, context.repositories().parallel());
+        boolean complete = false;
         try (var linkStates = context.status(fsReader)) {
-            linkStates.forEach(linkState -> {
-                if (linkState.type() != LinkState.Type.UP_TO_DATE) {
-                    updates++;
-                }
-                List<Action> actions = linkState.toActions(fsReader, force);
-                for (Action action : actions) {
-                    Result<Void, Action.Code> result = action.apply(fsReader, fsWriter);
-                    printStatus(linkState, action, result);
-                }
-            });
+            // The link states are computed as the actions are applied, their computation being timed apart
+            stats.time(
+                    Phase.ACTION_APPLY,
+                    () -> executor.execute(
+                            linkStates.peek(linkState -> {
+                                if (linkState.type() != LinkState.Type.UP_TO_DATE) {
+                                    updates++;
+                                }
+                            }),
+                            this::onApplied));
+            complete = true;
+        } finally {
+            if (!dryRun && manifest != null) {
+                manifest.save(complete);
+            }
+            context.repositories().saveCache();
+        }
+    }
+
+    private void onApplied(LinkState linkState, Action action, Result<Void, Action.Code> result) {
+        result.accept(
+                success -> {
+                    printAction(action);
+                    record(linkState, action);
+                },
+                error -> printError(linkState, action, error));
+    }
+
+    private void record(LinkState linkState, Action action) {
+        if (manifest == null || dryRun) {
+            return;
+        }
+        if (action instanceof CreateLinkAction a) {
+            manifest.linked(a.link(), layer(linkState));
+        } else if (action instanceof NoOpAction a) {
+            manifest.linked(a.link(), layer(linkState));
+        } else if (action instanceof DeleteLinkAction a && linkState.desiredTarget() == null) {
+            manifest.unlinked(a.link().source());
         }
     }
 
-    private void printStatus(LinkState linkState, Action action, Result<Void, Action.Code> result) {
-        result.accept(success -> printAction(action), error -> printError(linkState, action, error));
+    /**
+     * Returns the repository a link points to. As the desired target of a link is the entry of the same name in its
+     * repository, it is the desired target without the link's name.
+     */
+    private static Path layer(LinkState linkState) {
+        Path target = linkState.desiredTarget();
+        int layerNameCount = target.getNameCount() - linkState.name().getNameCount();
+        return target.getRoot().resolve(target.subpath(0, layerNameCount));
     }
 
     private void printAction(Action action) {
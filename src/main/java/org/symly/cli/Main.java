@@ -1,6 +1,7 @@
 package org.symly.cli;
 
 import java.nio.file.Path;
+import org.symly.stats.Stats;
 import picocli.CommandLine;
 
 public class Main {
@@ -16,6 +17,11 @@ public class Main {
         CommandLine commandLine = initializeCommandLine(beanFactory, console);
         commandLine.setColorScheme(CommandLine.Help.defaultColorScheme(ansi));
         int exitCode = commandLine.execute(args);
+        Stats stats = beanFactory.create(Stats.class);
+        if (stats.enabled()) {
+            console.flush();
+            stats.report(console.ewriter());
+        }
         console.flush();
         return exitCode;
     }
@@ -26,6 +32,7 @@ public class Main {
         commandLine.setErr(console.ewriter());
         commandLine.setExecutionExceptionHandler(factory.create(ExceptionHandler.class));
         commandLine.registerConverter(Path.class, new PathTypeConverter());
+        commandLine.registerConverter(Stats.Format.class, new StatsFormatConverter());
         return commandLine;
     }
 }
@@ -3,6 +3,7 @@ package org.symly.cli;
 import static picocli.CommandLine.Command;
 
 import java.util.Objects;
+import org.symly.stats.Stats;
 import picocli.CommandLine;
 import picocli.CommandLine.Model.CommandSpec;
 import picocli.CommandLine.Option;
@@ -19,6 +20,7 @@ import picocli.CommandLine.Spec;
             LinkCommand.class,
             StatusCommand.class,
             UnlinkCommand.class,
+            WatchCommand.class,
         })
 class MainCommand implements Runnable {
 
@@ -30,9 +32,10 @@ class MainCommand implements Runnable {
             scope = CommandLine.ScopeType.INHERIT)
     boolean helpRequested;
 
-    MainCommand(Config config, CliConsole console) {
+    MainCommand(Config config, CliConsole console, Stats stats) {
         this.config = Objects.requireNonNull(config);
         this.console = Objects.requireNonNull(console);
+        this.stats = Objects.requireNonNull(stats);
     }
 
     @SuppressWarnings("unused") // used by picocli
@@ -47,6 +50,21 @@ class MainCommand implements Runnable {
         }
     }
 
+    @SuppressWarnings("unused") // used by picocli
+    @Option(
+            names = {"--stats"},
+            arity = "0..1",
+            fallbackValue = "text",
+            paramLabel = "<format>",
+            description = "Reports the time spent in each phase and the file system calls on the standard error, "
+                    + "as 'text' (default) or as 'json'.",
+            scope = CommandLine.ScopeType.INHERIT)
+    public void setStats(Stats.Format format) {
+        if (format != null) {
+            stats.enable(format);
+        }
+    }
+
     @SuppressWarnings("unused") // used by picocli
     @Option(
             names = {"-V", "--version"},
@@ -61,6 +79,8 @@ class MainCommand implements Runnable {
 
     private final CliConsole console;
 
+    private final Stats stats;
+
     @Override
     public void run() {
         CommandLine commandLine = spec.commandLine();
@@ -0,0 +1,22 @@
+package org.symly.cli;
+
+import java.util.Arrays;
+import java.util.Locale;
+import org.symly.stats.Stats;
+import picocli.CommandLine.ITypeConverter;
+import picocli.CommandLine.TypeConversionException;
+
+/**
+ * Converts the names of the {@link Stats.Format}, which are documented in lower case, regardless of their case.
+ */
+public class StatsFormatConverter implements ITypeConverter<Stats.Format> {
+
+    @Override
+    public Stats.Format convert(String value) {
+        return Arrays.stream(Stats.Format.values())
+                .filter(format -> format.name().equalsIgnoreCase(value))
+                .findFirst()
+                .orElseThrow(() -> new TypeConversionException("expected one of %s but was '%s'"
+                        .formatted(Arrays.toString(Stats.Format.values()).toLowerCase(Locale.ROOT), value)));
+    }
+}
@@ -2,61 +2,153 @@ package org.symly.cli;
 
 import java.lang.System.Logger.Level;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import org.symly.files.FileSystemReader;
+import org.symly.files.InstrumentedFileSystemReader;
 import org.symly.links.Context;
 import org.symly.links.LinkState;
+import org.symly.stats.Stats;
 import picocli.CommandLine.Command;
+import picocli.CommandLine.IExitCodeGenerator;
 import picocli.CommandLine.Mixin;
+import picocli.CommandLine.Option;
 
 @Command(
         name = "status",
         aliases = {"st"},
         description = "Displays the current links' synchronization status")
-class StatusCommand implements Runnable {
+class StatusCommand implements Runnable, IExitCodeGenerator {
+
+    /**
+     * The exit code when {@code --exit-code} is given and some links are not up to date, as {@code git diff
+     * --exit-code} does.
+     */
+    private static final int OUT_OF_SYNC_EXIT_CODE = 1;
 
     @Mixin
     ContextInput contextInput;
 
+    @Option(
+            names = {"-q", "--quiet"},
+            description = "Do not display the status but stop at the first link which is not up to date")
+    boolean quiet = false;
+
+    @Option(
+            names = {"--exit-code"},
+            description = "Exit with code 1 if some links are not up to date, and 0 otherwise")
+    boolean exitCode = false;
+
+    @Option(
+            names = {"--full-scan"},
+            description =
+                    """
+            Look up orphan links by walking the main directory, even if a manifest of the links is kept, \
+            to find the orphan links which were not created by symly.""")
+    boolean fullScan = false;
+
     private final CliConsole console;
 
-    private final FileSystemReader fsReader;
+    private final FileSystemReader fileSystemReader;
+
+    private final Stats stats;
+
+    private FileSystemReader fsReader;
 
     private Context context;
 
     private int updates;
 
-    StatusCommand(CliConsole console, FileSystemReader fsReader) {
+    StatusCommand(CliConsole console, FileSystemReader fileSystemReader, Stats stats) {
         this.console = Objects.requireNonNull(console);
-        this.fsReader = Objects.requireNonNull(fsReader);
+        this.fileSystemReader = Objects.requireNonNull(fileSystemReader);
+        this.stats = Objects.requireNonNull(stats);
     }
 
     @Override
     public void run() {
-        context = contextInput.context();
+        // The statistics are enabled while the options are parsed, after the command is created
+        fsReader = InstrumentedFileSystemReader.of(fileSystemReader, stats);
+        context = contextInput.context(fsReader);
+        if (fullScan) {
+            context = context.withoutManifest();
+        }
+        updates = 0;
+        try {
+            checkStatus();
+        } finally {
+            context.repositories().saveCache();
+        }
+    }
+
+    private void checkStatus() {
+        if (quiet) {
+            // Only whether some links are not up to date matters, not how many
+            if (!upToDate()) {
+                updates = 1;
+            }
+            return;
+        }
         console.printf(
                 Level.DEBUG,
                 "Checking links status from %s to %s%n",
                 context.mainDirectory(),
                 context.repositories().repositories());
-        updates = 0;
+        console.flush();
         checkStatus(console);
         if (updates == 0) {
             console.printf("Everything is already up to date%n");
         }
     }
 
+    @Override
+    public int getExitCode() {
+        if (exitCode && updates > 0) {
+            return OUT_OF_SYNC_EXIT_CODE;
+        }
+        return 0;
+    }
+
+    private boolean upToDate() {
+        return servedStatus()
+                .map(linkStates -> linkStates.stream()
+                        .allMatch(linkState -> linkState.type().equals(LinkState.Type.UP_TO_DATE)))
+                .orElseGet(() -> context.upToDate(fsReader));
+    }
+
     private void checkStatus(CliConsole console) {
+        Optional<List<LinkState>> servedStatus = servedStatus();
+        if (servedStatus.isPresent()) {
+            console.printf(Level.DEBUG, "Status served by 'symly watch'%n");
+            servedStatus.get().stream()
+                    .takeWhile(linkState -> !console.outputClosed())
+                    .forEach(linkState -> checkStatus(console, linkState));
+            return;
+        }
         try (var linkStates = context.status(fsReader)) {
-            linkStates.forEach(linkState -> {
-                if (!linkState.type().equals(LinkState.Type.UP_TO_DATE)) {
-                    updates++;
-                }
-                printStatus(console, linkState);
-            });
+            // The status is computed lazily, and is no longer computed once nothing reads the output anymore
+            linkStates
+                    .takeWhile(linkState -> !console.outputClosed())
+                    .forEach(linkState -> checkStatus(console, linkState));
         }
     }
 
+    private Optional<List<LinkState>> servedStatus() {
+        if (fullScan) {
+            // The status served by 'symly watch' is computed with the manifest
+            return Optional.empty();
+        }
+        return StatusDaemon.query(context);
+    }
+
+    private void checkStatus(CliConsole console, LinkState linkState) {
+        if (!linkState.type().equals(LinkState.Type.UP_TO_DATE)) {
+            updates++;
+        }
+        printStatus(console, linkState);
+    }
+
     private void printStatus(CliConsole console, LinkState linkState) {
         String statusType =
                 switch (linkState.type()) {
@@ -73,6 +165,12 @@ class StatusCommand implements Runnable {
         }
         console.printf(
                 level, "%-12s %s%n", statusType + ":", linkState.desired().toString(context.mainDirectory()));
+        if (linkState.type() == LinkState.Type.ORPHAN
+                && linkState.currentState() instanceof LinkState.Entry.LinkEntry orphan) {
+            context.repositories()
+                    .repository(orphan.target())
+                    .ifPresent(repository -> console.printf(Level.DEBUG, "> Orphan of repository %s%n", repository));
+        }
         if (linkState.type() == LinkState.Type.LINK_CONFLICT) {
             Path realPath = fsReader.readSymbolicLink(linkState.source());
             console.printf("> Symbolic link conflict. Current target is %s%n", realPath);
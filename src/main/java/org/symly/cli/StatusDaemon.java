@@ -0,0 +1,320 @@
+package org.symly.cli;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFileAttributes;
+import java.nio.file.attribute.PosixFilePermission;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.nio.file.attribute.UserPrincipal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import org.symly.files.FileSystemReader;
+import org.symly.files.WatchedDirectories;
+import org.symly.links.Context;
+import org.symly.links.LinkState;
+import org.symly.repositories.MainDirectory;
+
+/**
+ * Serves the {@link LinkState} of a {@link Context} over a Unix domain socket, so that the {@code status} command
+ * does not need to scan the file system.
+ * <p>The status is computed once through the reader of a {@link WatchedDirectories}, then computed again whenever a
+ * change is reported in the directories read, or in the directories of the links of the status. As the content of
+ * the directories which did not change is kept in memory, only the changed directories are read again. Changes are
+ * reported asynchronously, hence a status queried right after a change may not reflect it yet.</p>
+ * <p>The directory of the socket must only be accessible to the current user, so that no other user can serve a
+ * forged status.</p>
+ * <p>Each connection to the socket is answered with the current status, then closed. The status is encoded as a
+ * sequence of link states, each preceded by a {@code true} boolean and terminated by a {@code false} one.</p>
+ */
+class StatusDaemon {
+
+    private static final byte MISSING = 0;
+    private static final byte FILE = 1;
+    private static final byte DIRECTORY = 2;
+    private static final byte LINK = 3;
+
+    private static final Set<PosixFilePermission> PRIVATE_PERMISSIONS = PosixFilePermissions.fromString("rwx------");
+
+    private final Context context;
+    private final WatchedDirectories watchedDirectories;
+    private final FileSystemReader fsReader;
+    private final Path socket;
+    private List<LinkState> status;
+
+    /**
+     * @param context the context which repositories read through {@code fsReader}
+     * @param watchedDirectories the directories watched by {@code fsReader}
+     * @param fsReader the reader of {@code watchedDirectories}
+     */
+    StatusDaemon(Context context, WatchedDirectories watchedDirectories, FileSystemReader fsReader) {
+        this(context, watchedDirectories, fsReader, socket(context));
+    }
+
+    /**
+     * @param socket the socket on which the status is served
+     */
+    StatusDaemon(Context context, WatchedDirectories watchedDirectories, FileSystemReader fsReader, Path socket) {
+        this.context = context;
+        this.watchedDirectories = watchedDirectories;
+        this.fsReader = fsReader;
+        this.socket = socket;
+    }
+
+    /**
+     * Returns the path of the socket on which the status of a context is served:
+     * {@code $XDG_RUNTIME_DIR/symly/<context-id>.sock}, or {@code <java.io.tmpdir>/symly-<user>/<context-id>.sock} if
+     * {@code XDG_RUNTIME_DIR} is not defined.
+     */
+    static Path socket(Context context) {
+        String runtimeDir = System.getenv("XDG_RUNTIME_DIR");
+        Path directory = runtimeDir != null && !runtimeDir.isBlank()
+                ? Path.of(runtimeDir, "symly")
+                : Path.of(System.getProperty("java.io.tmpdir"), "symly-" + System.getProperty("user.name"));
+        String key = "%s%n%s%n%s"
+                .formatted(
+                        context.mainDirectory(),
+                        context.repositories().repositories().stream()
+                                .map(Object::toString)
+                                .collect(Collectors.joining("\n")),
+                        context.orphanLookup());
+        return directory.resolve(UUID.nameUUIDFromBytes(key.getBytes(StandardCharsets.UTF_8)) + ".sock");
+    }
+
+    /**
+     * Queries the status of a context to the daemon serving it, if any.
+     *
+     * @param context the context
+     * @return the status of the context, or nothing if no daemon is serving it
+     */
+    static Optional<List<LinkState>> query(Context context) {
+        return query(context, socket(context));
+    }
+
+    /**
+     * Queries the status of a context to the daemon serving it on the given socket, if any.
+     *
+     * @param context the context
+     * @param socket the socket on which the status is served
+     * @return the status of the context, or nothing if no daemon is serving it
+     */
+    static Optional<List<LinkState>> query(Context context, Path socket) {
+        if (!Files.exists(socket) || !isPrivate(socket.getParent())) {
+            return Optional.empty();
+        }
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socket));
+                DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)))) {
+            List<LinkState> linkStates = new ArrayList<>();
+            while (in.readBoolean()) {
+                linkStates.add(read(in, context.mainDirectory()));
+            }
+            return Optional.of(linkStates);
+        } catch (IOException e) {
+            // The daemon stopped, or is not answering: the status has to be computed
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Serves the status of the context until the process is stopped, or the current thread is interrupted.
+     */
+    void serve(CliConsole console) {
+        try (ServerSocketChannel server = bind()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> deleteQuietly(socket)));
+            refresh();
+            console.printf("Serving the links' status of %s on %s%n", context.mainDirectory(), socket);
+            console.flush();
+            startWatching();
+            while (server.isOpen()) {
+                try (SocketChannel channel = server.accept();
+                        DataOutputStream out =
+                                new DataOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel)))) {
+                    write(out, currentStatus());
+                } catch (ClosedChannelException e) {
+                    // Interrupted while waiting for a query
+                    return;
+                } catch (IOException e) {
+                    console.eprintf("Unable to answer a status query: %s%n", e.getMessage());
+                }
+            }
+        } catch (IOException e) {
+            throw new SymlyExecutionException(
+                    "Unable to serve the links' status on %s: %s".formatted(socket, e.getMessage()), e);
+        }
+    }
+
+    private ServerSocketChannel bind() throws IOException {
+        if (Files.exists(socket)) {
+            if (isServed(socket)) {
+                throw new SymlyExecutionException(
+                        "The links' status of %s is already served on %s".formatted(context.mainDirectory(), socket));
+            }
+            // Left over by a daemon which did not stop properly
+            Files.delete(socket);
+        }
+        createPrivateDirectory(socket.getParent());
+        ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        server.bind(UnixDomainSocketAddress.of(socket));
+        return server;
+    }
+
+    /**
+     * Returns whether a daemon accepts connections on the given socket.
+     */
+    private static boolean isServed(Path socket) {
+        try {
+            SocketChannel.open(UnixDomainSocketAddress.of(socket)).close();
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Creates the directory of the socket, only accessible to the current user, unless it exists already. An existing
+     * directory is refused if it is owned by another user, or accessible to other users, as it may be shared by all
+     * users when created in the temporary directory.
+     */
+    private static void createPrivateDirectory(Path directory) throws IOException {
+        Files.createDirectories(directory.getParent());
+        try {
+            Files.createDirectory(directory, PosixFilePermissions.asFileAttribute(PRIVATE_PERMISSIONS));
+        } catch (FileAlreadyExistsException e) {
+            // Checked below
+        }
+        if (!isPrivate(directory)) {
+            throw new SymlyExecutionException(
+                    "Unable to serve the links' status in %s: it must be a directory owned by %s and only accessible to them"
+                            .formatted(directory, System.getProperty("user.name")));
+        }
+    }
+
+    /**
+     * Returns {@code true} if the given directory is owned by the current user and only accessible to them.
+     */
+    private static boolean isPrivate(Path directory) {
+        try {
+            PosixFileAttributes attrs =
+                    Files.readAttributes(directory, PosixFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+            UserPrincipal user = directory
+                    .getFileSystem()
+                    .getUserPrincipalLookupService()
+                    .lookupPrincipalByName(System.getProperty("user.name"));
+            return attrs.isDirectory()
+                    && attrs.owner().equals(user)
+                    && PRIVATE_PERMISSIONS.containsAll(attrs.permissions());
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Computes the status again each time changes are reported, so that queries are answered immediately.
+     */
+    private void startWatching() {
+        Thread watcher = new Thread(
+                () -> {
+                    try {
+                        while (watchedDirectories.awaitChanges()) {
+                            refresh();
+                        }
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                },
+                "symly-watch");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    /**
+     * Returns the current status, taking into account the changes reported but not processed yet by the watching
+     * thread.
+     */
+    private synchronized List<LinkState> currentStatus() {
+        if (watchedDirectories.pollChanges()) {
+            refresh();
+        }
+        return status;
+    }
+
+    /**
+     * Computes the status, and watches the directories of its links: they may not have been listed, when they are
+     * excluded from the orphans lookup or when the orphan links are looked up in the manifest. The status is computed
+     * again if new directories had to be watched, as they could have changed before being watched.
+     */
+    private synchronized void refresh() {
+        boolean watching;
+        do {
+            try (var linkStates = context.status(fsReader)) {
+                status = linkStates.toList();
+            } finally {
+                context.repositories().saveCache();
+            }
+            watching = false;
+            for (LinkState linkState : status) {
+                watching |= watchedDirectories.watch(linkState.source());
+            }
+        } while (watching);
+    }
+
+    private static void write(DataOutputStream out, List<LinkState> linkStates) throws IOException {
+        for (LinkState linkState : linkStates) {
+            out.writeBoolean(true);
+            out.writeUTF(linkState.source().toString());
+            if (linkState.currentState() instanceof LinkState.Entry.LinkEntry linkEntry) {
+                out.writeByte(LINK);
+                out.writeUTF(linkEntry.target().toString());
+            } else if (linkState.currentState() instanceof LinkState.Entry.FileEntry) {
+                out.writeByte(FILE);
+            } else if (linkState.currentState() instanceof LinkState.Entry.DirectoryEntry) {
+                out.writeByte(DIRECTORY);
+            } else {
+                out.writeByte(MISSING);
+            }
+            out.writeBoolean(linkState.desiredTarget() != null);
+            if (linkState.desiredTarget() != null) {
+                out.writeUTF(linkState.desiredTarget().toString());
+            }
+        }
+        out.writeBoolean(false);
+    }
+
+    private static LinkState read(DataInputStream in, MainDirectory mainDirectory) throws IOException {
+        Path source = Path.of(in.readUTF());
+        LinkState.Entry currentState =
+                switch (in.readByte()) {
+                    case LINK -> LinkState.Entry.linkEntry(Path.of(in.readUTF()));
+                    case FILE -> LinkState.Entry.fileEntry();
+                    case DIRECTORY -> LinkState.Entry.directoryEntry();
+                    default -> LinkState.Entry.missingEntry();
+                };
+        Path desiredTarget = in.readBoolean() ? Path.of(in.readUTF()) : null;
+        return new LinkState(mainDirectory, source, currentState, desiredTarget);
+    }
+
+    private static void deleteQuietly(Path socket) {
+        try {
+            Files.deleteIfExists(socket);
+        } catch (IOException e) {
+            // Nothing more can be done
+        }
+    }
+}
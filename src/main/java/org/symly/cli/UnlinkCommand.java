@@ -6,8 +6,12 @@ import java.util.stream.Stream;
 import org.symly.Result;
 import org.symly.files.FileSystemReader;
 import org.symly.files.FileSystemWriter;
+import org.symly.files.InstrumentedFileSystemReader;
+import org.symly.files.InstrumentedFileSystemWriter;
 import org.symly.files.NoOpFileSystemWriter;
 import org.symly.links.*;
+import org.symly.stats.Stats;
+import org.symly.stats.Stats.Phase;
 import picocli.CommandLine.Command;
 import picocli.CommandLine.Mixin;
 import picocli.CommandLine.Option;
@@ -31,23 +35,48 @@ class UnlinkCommand implements Runnable {
             description = "Do not actually remove links but only displays which ones would be removed")
     boolean dryRun = false;
 
+    @Option(
+            names = {"--full-scan"},
+            description =
+                    """
+            Look up the links by walking the main directory, even if a manifest of the links is kept, \
+            to remove the links which were not created by symly.""")
+    boolean fullScan = false;
+
     private final CliConsole console;
 
-    private final FileSystemReader fsReader;
+    private final FileSystemReader fileSystemReader;
 
     private final FileSystemWriter fileSystemWriter;
 
+    private final Stats stats;
+
+    private FileSystemReader fsReader;
+
     private Context context;
 
-    UnlinkCommand(CliConsole console, FileSystemReader fsReader, FileSystemWriter fileSystemWriter) {
+    /**
+     * The manifest in which the removed links are recorded, kept when the links are not looked up through it.
+     */
+    private LinkManifest manifest;
+
+    UnlinkCommand(
+            CliConsole console, FileSystemReader fileSystemReader, FileSystemWriter fileSystemWriter, Stats stats) {
         this.console = Objects.requireNonNull(console);
-        this.fsReader = Objects.requireNonNull(fsReader);
+        this.fileSystemReader = Objects.requireNonNull(fileSystemReader);
         this.fileSystemWriter = Objects.requireNonNull(fileSystemWriter);
+        this.stats = Objects.requireNonNull(stats);
     }
 
     @Override
     public void run() {
-        context = contextInput.context();
+        // The statistics are enabled while the options are parsed, after the command is created
+        fsReader = InstrumentedFileSystemReader.of(fileSystemReader, stats);
+        context = contextInput.context(fsReader);
+        manifest = context.manifest();
+        if (fullScan) {
+            context = context.withoutManifest();
+        }
         console.printf(Level.DEBUG, "Removing links ");
         if (dryRun) {
             console.printf(Level.DEBUG, "(dry-run mode) ");
@@ -57,6 +86,7 @@ class UnlinkCommand implements Runnable {
                 "in %s to %s%n",
                 context.mainDirectory(),
                 context.repositories().repositories());
+        console.flush();
         FileSystemWriter mutator = getFilesMutatorService();
         unlink(mutator);
     }
@@ -65,23 +95,37 @@ class UnlinkCommand implements Runnable {
         if (dryRun) {
             return new NoOpFileSystemWriter();
         }
-        return fileSystemWriter;
+        return InstrumentedFileSystemWriter.of(fileSystemWriter, stats);
     }
 
     private void unlink(FileSystemWriter mutator) {
-        try (Stream<LinkState> linkStates = context.status(fsReader)) {
-            linkStates
-                    .filter(ls -> ls.currentState() instanceof LinkState.Entry.LinkEntry le
-                            && context.repositories().containsPath(le.target()))
-                    .forEach(ls -> unlink(ls, mutator));
+        ActionExecutor executor = new ActionExecutor(
+                fsReader, mutator, false, !dryRun, context.repositories().parallel());
+        boolean complete = false;
+        try (Stream<Link> links = context.repositoryLinks(fsReader)) {
+            stats.time(
+                    Phase.ACTION_APPLY,
+                    () -> executor.execute(
+                            links.map(link -> new LinkState(
+                                    context.mainDirectory(),
+                                    link.source(),
+                                    LinkState.Entry.linkEntry(link.target()),
+                                    null)),
+                            this::onApplied));
+            complete = true;
+        } finally {
+            if (!dryRun && manifest != null) {
+                manifest.save(complete);
+            }
+            context.repositories().saveCache();
         }
     }
 
-    private void unlink(LinkState linkState, FileSystemWriter mutator) {
-        Action action = Action.deleteLink(
-                new Link(linkState.source(), ((LinkState.Entry.LinkEntry) linkState.currentState()).target()));
-        Result<Void, Action.Code> result = action.apply(fsReader, mutator);
+    private void onApplied(LinkState linkState, Action action, Result<Void, Action.Code> result) {
         printStatus(linkState, action, result);
+        if (!dryRun && manifest != null) {
+            manifest.unlinked(linkState.source());
+        }
     }
 
     private void printStatus(LinkState linkState, Action action, Result<Void, Action.Code> result) {
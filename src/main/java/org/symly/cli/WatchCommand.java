@@ -0,0 +1,48 @@
+package org.symly.cli;
+
+import java.io.IOException;
+import java.util.Objects;
+import org.symly.files.FileSystemReader;
+import org.symly.files.InstrumentedFileSystemReader;
+import org.symly.files.WatchedDirectories;
+import org.symly.links.Context;
+import org.symly.stats.Stats;
+import picocli.CommandLine.Command;
+import picocli.CommandLine.Mixin;
+
+@Command(
+        name = "watch",
+        description =
+                """
+            Watches the repositories and the main directory for changes, and serves \
+            their links' synchronization status to the 'status' command until stopped.""")
+class WatchCommand implements Runnable {
+
+    @Mixin
+    ContextInput contextInput;
+
+    private final CliConsole console;
+
+    private final FileSystemReader fsReader;
+
+    private final Stats stats;
+
+    WatchCommand(CliConsole console, FileSystemReader fsReader, Stats stats) {
+        this.console = Objects.requireNonNull(console);
+        this.fsReader = Objects.requireNonNull(fsReader);
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    @Override
+    public void run() {
+        try (WatchedDirectories watchedDirectories = WatchedDirectories.create()) {
+            FileSystemReader watchingReader =
+                    watchedDirectories.reader(InstrumentedFileSystemReader.of(fsReader, stats));
+            Context context = contextInput.context(watchingReader);
+            new StatusDaemon(context, watchedDirectories, watchingReader).serve(console);
+        } catch (IOException e) {
+            throw new SymlyExecutionException(
+                    "Unable to stop watching the file system: %s".formatted(e.getMessage()), e);
+        }
+    }
+}
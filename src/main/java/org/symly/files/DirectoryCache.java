@@ -0,0 +1,508 @@
+package org.symly.files;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * A persistent cache of the content of directories, invalidated by the modification time of the directories.
+ * <p>The {@link FileSystemReader} returned by {@link #reader(FileSystemReader)} serves the content of a directory,
+ * along with the attributes of its entries, from the cache as long as the modification time of the directory did not
+ * change. The content of the files read through {@link FileSystemReader#lines(Path)} is cached as well, and is
+ * invalidated by the modification time of the files themselves as modifying a file does not change the modification
+ * time of its directory. Whether the target of a symbolic link exists, and is a directory, is not cached as it does
+ * not depend on the directory of the link either. Scanning an unchanged file tree then only requires to read the
+ * attributes of its directories, of the files it reads and of the targets of its symbolic links.</p>
+ * <p>The cache is stored in a compact binary file which is memory-mapped when loaded, directories being decoded only
+ * when they are looked up:</p>
+ * <pre>
+ * file:      int magic, int version, int number of directories, directories
+ * directory: string path, long modification time, int number of entries, entries
+ * entry:     string name, byte type, long modification time, string content (length of -1 if not cached)
+ * string:    int length, UTF-8 bytes
+ * </pre>
+ */
+public class DirectoryCache {
+
+    private static final int MAGIC = 0x53594d4c;
+    private static final int VERSION = 1;
+
+    /**
+     * Directories and files modified less than this duration before the cache is saved are not saved, as they could
+     * still be modified without their modification time changing.
+     */
+    private static final Duration RACY_MODIFICATION_WINDOW = Duration.ofSeconds(2);
+
+    private static final int DIRECTORY = 1;
+    private static final int SYMBOLIC_LINK = 1 << 1;
+    private static final int REGULAR_FILE = 1 << 2;
+    private static final int TARGET_DIRECTORY = 1 << 3;
+    private static final int TARGET_EXISTS = 1 << 4;
+
+    private final Path file;
+
+    /**
+     * The content of the cache file, or {@code null} if there is none.
+     */
+    private final ByteBuffer buffer;
+
+    /**
+     * The offset in {@link #buffer} of each directory's modification time.
+     */
+    private final Map<String, Integer> offsets;
+
+    /**
+     * The directories listed since the cache was loaded.
+     */
+    private final Map<Path, CachedDirectory> directories = new ConcurrentHashMap<>();
+
+    private volatile boolean modified = false;
+
+    private DirectoryCache(Path file, ByteBuffer buffer, Map<String, Integer> offsets) {
+        this.file = file;
+        this.buffer = buffer;
+        this.offsets = offsets;
+    }
+
+    /**
+     * Returns the default location of the cache file: {@code $XDG_CACHE_HOME/symly/directories}, or
+     * {@code ~/.cache/symly/directories} if {@code XDG_CACHE_HOME} is not defined.
+     *
+     * @return the default location of the cache file
+     */
+    public static Path defaultFile() {
+        String cacheHome = System.getenv("XDG_CACHE_HOME");
+        Path cacheDirectory = cacheHome != null && !cacheHome.isBlank()
+                ? Path.of(cacheHome)
+                : Path.of(System.getProperty("user.home"), ".cache");
+        return cacheDirectory.resolve("symly").resolve("directories");
+    }
+
+    /**
+     * Loads the cache from the given file. An empty cache is returned if the file does not exist or cannot be read.
+     *
+     * @param file the cache file
+     * @return the cache
+     */
+    public static DirectoryCache load(Path file) {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new DirectoryCache(file, buffer, index(buffer));
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            // A missing, unreadable or outdated cache is simply rebuilt
+            return new DirectoryCache(file, null, Map.of());
+        }
+    }
+
+    private static Map<String, Integer> index(ByteBuffer buffer) {
+        ByteBuffer view = buffer.duplicate();
+        if (view.getInt() != MAGIC || view.getInt() != VERSION) {
+            throw new IllegalArgumentException("Unsupported cache file");
+        }
+        int count = view.getInt();
+        Map<String, Integer> offsets = new HashMap<>(count * 2);
+        for (int i = 0; i < count; i++) {
+            offsets.put(readString(view), view.position());
+            view.position(view.position() + Long.BYTES);
+            int entries = view.getInt();
+            for (int j = 0; j < entries; j++) {
+                skipString(view);
+                view.position(view.position() + Byte.BYTES + Long.BYTES);
+                skipString(view);
+            }
+        }
+        return offsets;
+    }
+
+    /**
+     * Returns a {@link FileSystemReader} reading the content of directories through this cache.
+     *
+     * @param delegate the reader used to read the file system
+     * @return a {@link FileSystemReader} reading through this cache
+     */
+    public FileSystemReader reader(FileSystemReader delegate) {
+        return new CachingReader(delegate);
+    }
+
+    /**
+     * Saves the content of the directories listed since the cache was loaded, if it changed since then. The directories
+     * loaded from the cache file but not listed since then, for example the ones of other repositories, are saved again
+     * as long as they were not modified in the meantime. Failing to save the cache is not an error, the file system
+     * will simply be read again on the next run.
+     */
+    public void save() {
+        if (!modified) {
+            return;
+        }
+        long limit = nanos(FileTime.from(Instant.now().minus(RACY_MODIFICATION_WINDOW)));
+        Map<Path, CachedDirectory> savedDirectoriesByPath = directories.entrySet().stream()
+                .filter(entry -> entry.getValue().modificationTime() < limit)
+                .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+        for (String name : offsets.keySet()) {
+            Path dir = Path.of(name);
+            if (!directories.containsKey(dir)) {
+                CachedDirectory directory = loadDirectory(dir);
+                if (isUnchanged(dir, directory, limit)) {
+                    savedDirectoriesByPath.put(dir, directory);
+                }
+            }
+        }
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temporaryFile =
+                    Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                write(out, savedDirectoriesByPath, limit);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            deleteQuietly(temporaryFile);
+            return;
+        }
+        modified = false;
+    }
+
+    /**
+     * Returns whether a directory, which has not been listed since the cache was loaded, still has the modification
+     * time with which it was cached.
+     */
+    private static boolean isUnchanged(Path dir, CachedDirectory directory, long limit) {
+        if (directory.modificationTime() >= limit) {
+            return false;
+        }
+        try {
+            return nanos(Files.getLastModifiedTime(dir, LinkOption.NOFOLLOW_LINKS)) == directory.modificationTime();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void write(DataOutputStream out, Map<Path, CachedDirectory> directories, long limit)
+            throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(directories.size());
+        for (Map.Entry<Path, CachedDirectory> directory : directories.entrySet()) {
+            writeString(out, directory.getKey().toString());
+            out.writeLong(directory.getValue().modificationTime());
+            out.writeInt(directory.getValue().entries().size());
+            for (CachedEntry entry : directory.getValue().entries().values()) {
+                writeString(out, entry.name);
+                out.writeByte(entry.type);
+                out.writeLong(entry.modificationTime);
+                writeString(out, entry.modificationTime < limit ? entry.content : null);
+            }
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path != null) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Nothing more can be done
+            }
+        }
+    }
+
+    private CachedDirectory loadDirectory(Path dir) {
+        Integer offset = offsets.get(dir.toString());
+        if (offset == null) {
+            return null;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset);
+        long modificationTime = view.getLong();
+        int count = view.getInt();
+        Map<String, CachedEntry> entries = new LinkedHashMap<>();
+        for (int i = 0; i < count; i++) {
+            String name = readString(view);
+            int type = view.get();
+            long entryModificationTime = view.getLong();
+            entries.put(name, new CachedEntry(name, type, entryModificationTime, readString(view)));
+        }
+        return new CachedDirectory(modificationTime, entries);
+    }
+
+    private static String readString(ByteBuffer view) {
+        int length = view.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        view.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void skipString(ByteBuffer view) {
+        int length = view.getInt();
+        view.position(view.position() + Math.max(0, length));
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static long nanos(FileTime time) {
+        return time.to(TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * The content of a directory.
+     *
+     * @param modificationTime the modification time of the directory when its content was listed
+     * @param entries the entries of the directory by name, sorted by name
+     */
+    private record CachedDirectory(long modificationTime, Map<String, CachedEntry> entries) {}
+
+    /**
+     * An entry of a cached directory, along with the content of the file if it has been read.
+     */
+    private static final class CachedEntry implements BasicFileAttributes {
+
+        private final String name;
+        private final int type;
+        private volatile long modificationTime;
+        private volatile String content;
+
+        CachedEntry(String name, int type, long modificationTime, String content) {
+            this.name = name;
+            this.type = type;
+            this.modificationTime = modificationTime;
+            this.content = content;
+        }
+
+        boolean is(int flag) {
+            return (type & flag) != 0;
+        }
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return FileTime.from(modificationTime, TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return lastModifiedTime();
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return is(REGULAR_FILE);
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return is(DIRECTORY);
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return is(SYMBOLIC_LINK);
+        }
+
+        @Override
+        public boolean isOther() {
+            return !is(REGULAR_FILE | DIRECTORY | SYMBOLIC_LINK);
+        }
+
+        @Override
+        public long size() {
+            return 0L;
+        }
+
+        @Override
+        public Object fileKey() {
+            return null;
+        }
+    }
+
+    private class CachingReader implements FileSystemReader {
+
+        private final FileSystemReader delegate;
+
+        CachingReader(FileSystemReader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Stream<Path> list(Path dir) throws IOException {
+            BasicFileAttributes attrs = delegate.readAttributes(dir);
+            if (!attrs.isDirectory()) {
+                // The modification time of a symbolic link does not tell whether the directory it points to changed
+                return delegate.list(dir);
+            }
+            long modificationTime = nanos(attrs.lastModifiedTime());
+            CachedDirectory directory = directories.get(dir);
+            if (directory == null || directory.modificationTime() != modificationTime) {
+                directory = loadDirectory(dir);
+                if (directory == null || directory.modificationTime() != modificationTime) {
+                    directory = scan(dir, modificationTime);
+                    modified = true;
+                }
+                directories.put(dir, directory);
+            }
+            return directory.entries().keySet().stream().map(dir::resolve);
+        }
+
+        private CachedDirectory scan(Path dir, long modificationTime) throws IOException {
+            List<Path> paths;
+            try (Stream<Path> content = delegate.list(dir)) {
+                paths = content.sorted(
+                                Comparator.comparing(path -> path.getFileName().toString()))
+                        .toList();
+            }
+            Map<String, CachedEntry> entries = new LinkedHashMap<>();
+            for (Path path : paths) {
+                String name = path.getFileName().toString();
+                BasicFileAttributes attrs = delegate.readAttributes(path);
+                entries.put(name, new CachedEntry(name, type(attrs), nanos(attrs.lastModifiedTime()), null));
+            }
+            return new CachedDirectory(modificationTime, entries);
+        }
+
+        private int type(BasicFileAttributes attrs) {
+            if (attrs.isSymbolicLink()) {
+                // Whether the target exists and is a directory does not depend on the directory of the link
+                return SYMBOLIC_LINK;
+            }
+            if (attrs.isDirectory()) {
+                return DIRECTORY | TARGET_DIRECTORY | TARGET_EXISTS;
+            }
+            return (attrs.isRegularFile() ? REGULAR_FILE : 0) | TARGET_EXISTS;
+        }
+
+        /**
+         * Returns the content of the parent directory of the given path, or {@code null} if it has not been listed
+         * through this cache.
+         */
+        private CachedDirectory parentDirectory(Path path) {
+            Path parent = path.getParent();
+            return parent == null ? null : directories.get(parent);
+        }
+
+        private CachedEntry entry(CachedDirectory directory, Path path) {
+            return directory.entries().get(path.getFileName().toString());
+        }
+
+        @Override
+        public BasicFileAttributes readAttributes(Path path) throws IOException {
+            CachedDirectory directory = parentDirectory(path);
+            if (directory == null) {
+                return delegate.readAttributes(path);
+            }
+            CachedEntry entry = entry(directory, path);
+            if (entry == null) {
+                throw new NoSuchFileException(path.toString());
+            }
+            return entry;
+        }
+
+        @Override
+        public boolean exists(Path path) {
+            CachedDirectory directory = parentDirectory(path);
+            if (directory == null) {
+                return delegate.exists(path);
+            }
+            CachedEntry entry = entry(directory, path);
+            if (entry != null && entry.is(SYMBOLIC_LINK)) {
+                return delegate.exists(path);
+            }
+            return entry != null && entry.is(TARGET_EXISTS);
+        }
+
+        @Override
+        public boolean isDirectory(Path path) {
+            CachedDirectory directory = parentDirectory(path);
+            if (directory == null) {
+                return delegate.isDirectory(path);
+            }
+            CachedEntry entry = entry(directory, path);
+            if (entry != null && entry.is(SYMBOLIC_LINK)) {
+                return delegate.isDirectory(path);
+            }
+            return entry != null && entry.is(TARGET_DIRECTORY);
+        }
+
+        @Override
+        public boolean isSymbolicLink(Path path) {
+            CachedDirectory directory = parentDirectory(path);
+            if (directory == null) {
+                return delegate.isSymbolicLink(path);
+            }
+            CachedEntry entry = entry(directory, path);
+            return entry != null && entry.is(SYMBOLIC_LINK);
+        }
+
+        @Override
+        public Stream<String> lines(Path path) throws IOException {
+            CachedDirectory directory = parentDirectory(path);
+            CachedEntry entry = directory == null ? null : entry(directory, path);
+            if (entry == null) {
+                return delegate.lines(path);
+            }
+            long modificationTime = nanos(delegate.readAttributes(path).lastModifiedTime());
+            String content = entry.content;
+            if (content == null || entry.modificationTime != modificationTime) {
+                try (Stream<String> lines = delegate.lines(path)) {
+                    content = lines.collect(Collectors.joining("\n"));
+                }
+                entry.modificationTime = modificationTime;
+                entry.content = content;
+                modified = true;
+            }
+            return content.lines();
+        }
+
+        @Override
+        public boolean isReadable(Path path) {
+            return delegate.isReadable(path);
+        }
+
+        @Override
+        public Path readSymbolicLink(Path link) {
+            return delegate.readSymbolicLink(link);
+        }
+
+        @Override
+        public Stream<Path> walk(Path path) throws IOException {
+            return delegate.walk(path);
+        }
+    }
+}
@@ -1,14 +1,43 @@
 package org.symly.files;
 
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
 import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.SecureDirectoryStream;
+import java.nio.file.attribute.BasicFileAttributeView;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 import org.symly.cli.SymlyExecutionException;
 import org.symly.repositories.Directory;
 
 public interface FileSystemReader {
 
+    /**
+     * The order in which {@link #walkSorted(Path, SortedFileVisitor)} walks a file tree: paths are compared name by
+     * name so that a directory is directly followed by its content.
+     */
+    Comparator<Path> WALK_ORDER = (path, otherPath) -> {
+        int nameCount = Math.min(path.getNameCount(), otherPath.getNameCount());
+        for (int i = 0; i < nameCount; i++) {
+            int comparison =
+                    path.getName(i).toString().compareTo(otherPath.getName(i).toString());
+            if (comparison != 0) {
+                return comparison;
+            }
+        }
+        return Integer.compare(path.getNameCount(), otherPath.getNameCount());
+    };
+
     boolean exists(Path path);
 
     boolean isReadable(Path path);
@@ -29,6 +58,53 @@ public interface FileSystemReader {
 
     Stream<Path> walk(Path path) throws IOException;
 
+    /**
+     * Reads the {@link BasicFileAttributes} of a file system entry without following symbolic links, so that callers
+     * can learn the type of the entry with a single query to the file system.
+     *
+     * @param path the path of the file system entry
+     * @return the attributes of the file system entry
+     * @throws IOException if the attributes cannot be read
+     */
+    BasicFileAttributes readAttributes(Path path) throws IOException;
+
+    /**
+     * Lists the content of a directory along with the {@link BasicFileAttributes} of each entry, read without
+     * following symbolic links. Entries removed while the directory is being listed are omitted.
+     *
+     * @param dir the directory to list
+     * @return the content of the directory along with the attributes of each entry
+     * @throws IOException if the directory cannot be listed
+     */
+    default Stream<PathAttributes> listAttributes(Path dir) throws IOException {
+        List<PathAttributes> entries = new ArrayList<>();
+        try (Stream<Path> content = list(dir)) {
+            for (Path path : (Iterable<Path>) content::iterator) {
+                try {
+                    entries.add(new PathAttributes(path, readAttributes(path)));
+                } catch (NoSuchFileException e) {
+                    // Removed since listed
+                }
+            }
+        }
+        return entries.stream();
+    }
+
+    /**
+     * Walks lazily and depth-first the file tree rooted at {@code start}, in a deterministic {@link #WALK_ORDER}. Only
+     * the content of each directory is sorted, when the walk enters it, so that the walk never needs to buffer or sort
+     * the whole tree.
+     *
+     * @param start the root of the file tree to walk
+     * @param visitor the visitor deciding which values are produced and which directories are walked into
+     * @param <T> the type of the values produced by the walk
+     * @return the values produced by the {@code visitor}, in walk order
+     */
+    default <T> Stream<T> walkSorted(Path start, SortedFileVisitor<T> visitor) {
+        Iterator<T> values = new SortedWalk<>(this, start, visitor);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(values, Spliterator.ORDERED), false);
+    }
+
     class RealFileSystemReader implements FileSystemReader {
 
         @Override
@@ -75,5 +151,36 @@ public interface FileSystemReader {
         public Stream<Path> walk(Path path) throws IOException {
             return Files.walk(path);
         }
+
+        @Override
+        public BasicFileAttributes readAttributes(Path path) throws IOException {
+            return Files.readAttributes(path, BasicFileAttributes.class, LinkOption.NOFOLLOW_LINKS);
+        }
+
+        @Override
+        public Stream<PathAttributes> listAttributes(Path dir) throws IOException {
+            List<PathAttributes> entries = new ArrayList<>();
+            try (DirectoryStream<Path> content = Files.newDirectoryStream(dir)) {
+                for (Path path : content) {
+                    try {
+                        entries.add(new PathAttributes(path, readAttributes(content, path)));
+                    } catch (NoSuchFileException e) {
+                        // Removed since listed
+                    }
+                }
+            }
+            return entries.stream();
+        }
+
+        private BasicFileAttributes readAttributes(DirectoryStream<Path> dir, Path path) throws IOException {
+            if (dir instanceof SecureDirectoryStream<Path> secureDir) {
+                // Read relatively to the opened directory, sparing the resolution of the whole path
+                return secureDir
+                        .getFileAttributeView(
+                                path.getFileName(), BasicFileAttributeView.class, LinkOption.NOFOLLOW_LINKS)
+                        .readAttributes();
+            }
+            return readAttributes(path);
+        }
     }
 }
@@ -0,0 +1,362 @@
+package org.symly.files;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.FileSystemException;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import org.symly.cli.SymlyExecutionException;
+
+/**
+ * A file system held in memory, which can be both read and written to.
+ * <p>It is a tree of nodes, the children of each directory being kept sorted by name so that listing a directory does
+ * not depend on the size of the whole tree. Symbolic links are followed as the operating system would: when they are
+ * intermediate names of a path, and when they are the last name of a path unless the operation is about the link
+ * itself ({@link #readAttributes(Path)}, {@link #isSymbolicLink(Path)}, {@link #readSymbolicLink(Path)},
+ * {@link #createSymbolicLink(Path, Path)} and {@link #deleteIfExists(Path)}).</p>
+ * <p>A file system can be created empty, or as a snapshot of a file tree read once from another
+ * {@link FileSystemReader}, against which actions can then be applied without writing to the disk. The content of the
+ * files of a snapshot is only read from the original file system when it is first read.</p>
+ * <p>Reads and writes can be performed concurrently.</p>
+ */
+public class InMemoryFileSystem implements FileSystemReader, FileSystemWriter {
+
+    /**
+     * The number of symbolic links which can be followed to resolve a path, above which a loop is assumed.
+     */
+    private static final int MAX_FOLLOWED_LINKS = 40;
+
+    private static final FileTime EPOCH = FileTime.fromMillis(0);
+
+    private final DirectoryNode root = new DirectoryNode();
+
+    /**
+     * Creates a snapshot of the file trees rooted at the given paths. Symbolic links are snapshot as links and are not
+     * walked into.
+     *
+     * @param fsReader the reader of the file system to snapshot
+     * @param roots the roots of the file trees to snapshot
+     * @return the snapshot
+     * @throws IOException if a file tree cannot be read
+     */
+    public static InMemoryFileSystem snapshot(FileSystemReader fsReader, Path... roots) throws IOException {
+        InMemoryFileSystem fileSystem = new InMemoryFileSystem();
+        for (Path root : roots) {
+            Path absoluteRoot = root.toAbsolutePath().normalize();
+            if (fsReader.readAttributes(absoluteRoot).isDirectory()) {
+                fileSystem.createDirectories(absoluteRoot);
+                fileSystem.snapshot(fsReader, absoluteRoot, (DirectoryNode) fileSystem.lookup(absoluteRoot, true));
+            }
+        }
+        return fileSystem;
+    }
+
+    private void snapshot(FileSystemReader fsReader, Path dir, DirectoryNode node) throws IOException {
+        try (Stream<PathAttributes> content = fsReader.listAttributes(dir)) {
+            for (PathAttributes entry : (Iterable<PathAttributes>) content::iterator) {
+                Path path = entry.path();
+                BasicFileAttributes attrs = entry.attributes();
+                String name = path.getFileName().toString();
+                if (attrs.isSymbolicLink()) {
+                    node.children.put(name, new LinkNode(fsReader.readSymbolicLink(path)));
+                } else if (attrs.isDirectory()) {
+                    DirectoryNode child = new DirectoryNode();
+                    node.children.put(name, child);
+                    snapshot(fsReader, path, child);
+                } else {
+                    node.children.put(name, new FileNode(fsReader, path, null));
+                }
+            }
+        }
+    }
+
+    /**
+     * Creates a regular file.
+     *
+     * @param path the path of the file, which parent directory must exist
+     * @param content the content of the file
+     * @throws IOException if the file cannot be created
+     */
+    public void createFile(Path path, String content) throws IOException {
+        create(path, new FileNode(null, null, content));
+    }
+
+    @Override
+    public boolean exists(Path path) {
+        return lookup(path, true) != null;
+    }
+
+    @Override
+    public boolean isReadable(Path path) {
+        return exists(path);
+    }
+
+    @Override
+    public boolean isDirectory(Path path) {
+        return lookup(path, true) instanceof DirectoryNode;
+    }
+
+    @Override
+    public boolean isSymbolicLink(Path path) {
+        return lookup(path, false) instanceof LinkNode;
+    }
+
+    @Override
+    public Path readSymbolicLink(Path link) {
+        if (lookup(link, false) instanceof LinkNode node) {
+            return node.target;
+        }
+        throw new SymlyExecutionException("Unable to read link %s real path: not a symbolic link".formatted(link));
+    }
+
+    @Override
+    public Stream<String> lines(Path path) throws IOException {
+        Node node = lookup(path, true);
+        if (node instanceof FileNode file) {
+            return file.content().lines();
+        }
+        if (node == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        throw new FileSystemException(path.toString(), null, "Is a directory");
+    }
+
+    @Override
+    public Stream<Path> list(Path path) throws IOException {
+        return directory(path).children.keySet().stream().map(path::resolve).toList().stream();
+    }
+
+    @Override
+    public Stream<PathAttributes> listAttributes(Path dir) throws IOException {
+        return directory(dir).children.entrySet().stream()
+                .map(entry -> new PathAttributes(dir.resolve(entry.getKey()), new NodeAttributes(entry.getValue())))
+                .toList()
+                .stream();
+    }
+
+    @Override
+    public Stream<Path> walk(Path path) throws IOException {
+        Node node = lookup(path, false);
+        if (node == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        List<Path> paths = new ArrayList<>();
+        walk(path, node, paths);
+        return paths.stream();
+    }
+
+    private static void walk(Path path, Node node, List<Path> paths) {
+        paths.add(path);
+        if (node instanceof DirectoryNode directory) {
+            for (Map.Entry<String, Node> child : directory.children.entrySet()) {
+                walk(path.resolve(child.getKey()), child.getValue(), paths);
+            }
+        }
+    }
+
+    @Override
+    public BasicFileAttributes readAttributes(Path path) throws IOException {
+        Node node = lookup(path, false);
+        if (node == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return new NodeAttributes(node);
+    }
+
+    @Override
+    public void deleteIfExists(Path path) throws IOException {
+        Path parentPath = path.toAbsolutePath().normalize().getParent();
+        if (parentPath == null || !(lookup(parentPath, true) instanceof DirectoryNode parent)) {
+            return;
+        }
+        String name = path.getFileName().toString();
+        Node node = parent.children.get(name);
+        if (node instanceof DirectoryNode directory && !directory.children.isEmpty()) {
+            throw new DirectoryNotEmptyException(path.toString());
+        }
+        if (node != null) {
+            parent.children.remove(name, node);
+        }
+    }
+
+    @Override
+    public void createDirectories(Path path) throws IOException {
+        Path absolutePath = path.toAbsolutePath().normalize();
+        Path current = absolutePath.getRoot();
+        for (Path name : absolutePath) {
+            current = current.resolve(name);
+            Node node = lookup(current, true);
+            if (node == null) {
+                DirectoryNode parent = parent(current);
+                parent.children.putIfAbsent(name.toString(), new DirectoryNode());
+                node = lookup(current, true);
+            }
+            if (!(node instanceof DirectoryNode)) {
+                throw new FileAlreadyExistsException(current.toString());
+            }
+        }
+    }
+
+    @Override
+    public void createSymbolicLink(Path from, Path to) throws IOException {
+        create(from, new LinkNode(to));
+    }
+
+    private void create(Path path, Node node) throws IOException {
+        if (parent(path).children.putIfAbsent(path.getFileName().toString(), node) != null) {
+            throw new FileAlreadyExistsException(path.toString());
+        }
+    }
+
+    private DirectoryNode directory(Path path) throws IOException {
+        Node node = lookup(path, true);
+        if (node instanceof DirectoryNode directory) {
+            return directory;
+        }
+        if (node == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        throw new NotDirectoryException(path.toString());
+    }
+
+    private DirectoryNode parent(Path path) throws IOException {
+        Path parent = path.toAbsolutePath().normalize().getParent();
+        if (parent == null) {
+            throw new FileSystemException(path.toString(), null, "The root cannot be modified");
+        }
+        return directory(parent);
+    }
+
+    private Node lookup(Path path, boolean followLastLink) {
+        return lookup(path.toAbsolutePath().normalize(), followLastLink, 0);
+    }
+
+    private Node lookup(Path absolutePath, boolean followLastLink, int followedLinks) {
+        Node node = root;
+        Path current = absolutePath.getRoot();
+        int nameCount = absolutePath.getNameCount();
+        for (int i = 0; i < nameCount; i++) {
+            if (!(node instanceof DirectoryNode directory)) {
+                return null;
+            }
+            Path name = absolutePath.getName(i);
+            Node child = directory.children.get(name.toString());
+            if (child instanceof LinkNode link && (i < nameCount - 1 || followLastLink)) {
+                if (followedLinks >= MAX_FOLLOWED_LINKS) {
+                    return null;
+                }
+                Path target = current.resolve(link.target).normalize();
+                child = lookup(target, true, followedLinks + 1);
+                // Links relative to the names which follow are resolved from the target
+                current = target;
+            } else {
+                current = current.resolve(name);
+            }
+            if (child == null) {
+                return null;
+            }
+            node = child;
+        }
+        return node;
+    }
+
+    private sealed interface Node permits DirectoryNode, FileNode, LinkNode {}
+
+    private static final class DirectoryNode implements Node {
+
+        private final Map<String, Node> children = new ConcurrentSkipListMap<>();
+    }
+
+    private static final class LinkNode implements Node {
+
+        private final Path target;
+
+        LinkNode(Path target) {
+            this.target = target;
+        }
+    }
+
+    /**
+     * A regular file, which content is either given or read from another file system when first needed.
+     */
+    private static final class FileNode implements Node {
+
+        private final FileSystemReader source;
+        private final Path sourcePath;
+        private volatile String content;
+
+        FileNode(FileSystemReader source, Path sourcePath, String content) {
+            this.source = source;
+            this.sourcePath = sourcePath;
+            this.content = content;
+        }
+
+        String content() throws IOException {
+            String value = content;
+            if (value == null) {
+                try (Stream<String> lines = source.lines(sourcePath)) {
+                    value = String.join("\n", (Iterable<String>) lines::iterator);
+                }
+                content = value;
+            }
+            return value;
+        }
+    }
+
+    private record NodeAttributes(Node node) implements BasicFileAttributes {
+
+        @Override
+        public FileTime lastModifiedTime() {
+            return EPOCH;
+        }
+
+        @Override
+        public FileTime lastAccessTime() {
+            return EPOCH;
+        }
+
+        @Override
+        public FileTime creationTime() {
+            return EPOCH;
+        }
+
+        @Override
+        public boolean isRegularFile() {
+            return node instanceof FileNode;
+        }
+
+        @Override
+        public boolean isDirectory() {
+            return node instanceof DirectoryNode;
+        }
+
+        @Override
+        public boolean isSymbolicLink() {
+            return node instanceof LinkNode;
+        }
+
+        @Override
+        public boolean isOther() {
+            return false;
+        }
+
+        @Override
+        public long size() {
+            return 0L;
+        }
+
+        @Override
+        public Object fileKey() {
+            return node;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package org.symly.files;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.symly.stats.Stats;
+
+/**
+ * A {@link FileSystemReader} recording the number and the duration of the calls made to its delegate in
+ * {@link Stats}. The calls returning lazy streams are only timed until the stream is returned.
+ */
+public class InstrumentedFileSystemReader implements FileSystemReader {
+
+    private final FileSystemReader delegate;
+    private final Stats stats;
+
+    public InstrumentedFileSystemReader(FileSystemReader delegate, Stats stats) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    /**
+     * Returns a {@link FileSystemReader} recording the calls made to {@code reader} if the statistics are enabled.
+     *
+     * @param reader the reader to instrument
+     * @param stats the statistics
+     * @return the instrumented reader, or {@code reader} itself if the statistics are not enabled
+     */
+    public static FileSystemReader of(FileSystemReader reader, Stats stats) {
+        if (!stats.enabled()) {
+            return reader;
+        }
+        return new InstrumentedFileSystemReader(reader, stats);
+    }
+
+    @Override
+    public boolean exists(Path path) {
+        return stats.call("exists", () -> delegate.exists(path));
+    }
+
+    @Override
+    public boolean isReadable(Path path) {
+        return stats.call("isReadable", () -> delegate.isReadable(path));
+    }
+
+    @Override
+    public boolean isDirectory(Path path) {
+        return stats.call("isDirectory", () -> delegate.isDirectory(path));
+    }
+
+    @Override
+    public boolean isSymbolicLink(Path path) {
+        return stats.call("isSymbolicLink", () -> delegate.isSymbolicLink(path));
+    }
+
+    @Override
+    public Path readSymbolicLink(Path link) {
+        return stats.call("readSymbolicLink", () -> delegate.readSymbolicLink(link));
+    }
+
+    @Override
+    public Stream<String> lines(Path path) throws IOException {
+        return stats.call("lines", () -> delegate.lines(path));
+    }
+
+    @Override
+    public Stream<Path> list(Path path) throws IOException {
+        return stats.call("list", () -> delegate.list(path));
+    }
+
+    @Override
+    public Stream<Path> walk(Path path) throws IOException {
+        return stats.call("walk", () -> delegate.walk(path));
+    }
+
+    @Override
+    public BasicFileAttributes readAttributes(Path path) throws IOException {
+        return stats.call("readAttributes", () -> delegate.readAttributes(path));
+    }
+
+    @Override
+    public Stream<PathAttributes> listAttributes(Path dir) throws IOException {
+        return stats.call("listAttributes", () -> delegate.listAttributes(dir));
+    }
+}
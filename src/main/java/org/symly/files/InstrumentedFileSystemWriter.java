@@ -0,0 +1,62 @@
+package org.symly.files;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Objects;
+import org.symly.stats.Stats;
+
+/**
+ * A {@link FileSystemWriter} recording the number and the duration of the calls made to its delegate in
+ * {@link Stats}.
+ */
+public class InstrumentedFileSystemWriter implements FileSystemWriter {
+
+    private final FileSystemWriter delegate;
+    private final Stats stats;
+
+    public InstrumentedFileSystemWriter(FileSystemWriter delegate, Stats stats) {
+        this.delegate = Objects.requireNonNull(delegate);
+        this.stats = Objects.requireNonNull(stats);
+    }
+
+    /**
+     * Returns a {@link FileSystemWriter} recording the calls made to {@code writer} if the statistics are enabled.
+     *
+     * @param writer the writer to instrument
+     * @param stats the statistics
+     * @return the instrumented writer, or {@code writer} itself if the statistics are not enabled
+     */
+    public static FileSystemWriter of(FileSystemWriter writer, Stats stats) {
+        if (!stats.enabled()) {
+            return writer;
+        }
+        return new InstrumentedFileSystemWriter(writer, stats);
+    }
+
+    @Override
+    public void deleteIfExists(Path path) throws IOException {
+        call("deleteIfExists", () -> delegate.deleteIfExists(path));
+    }
+
+    @Override
+    public void createDirectories(Path path) throws IOException {
+        call("createDirectories", () -> delegate.createDirectories(path));
+    }
+
+    @Override
+    public void createSymbolicLink(Path from, Path to) throws IOException {
+        call("createSymbolicLink", () -> delegate.createSymbolicLink(from, to));
+    }
+
+    private void call(String operation, WriteCall call) throws IOException {
+        stats.call(operation, () -> {
+            call.call();
+            return null;
+        });
+    }
+
+    @FunctionalInterface
+    private interface WriteCall {
+        void call() throws IOException;
+    }
+}
@@ -0,0 +1,25 @@
+package org.symly.files;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * The {@link ForkJoinPool} on which file system operations are run when executed in parallel.
+ * <p>Those operations are I/O-bound, hence the pool has more workers than there are available processors so that
+ * slow file systems (network mounts for example) do not starve it.</p>
+ */
+public final class IoPool {
+
+    private static final int MIN_PARALLELISM = 4;
+
+    private IoPool() {}
+
+    public static ForkJoinPool get() {
+        return Holder.POOL;
+    }
+
+    private static class Holder {
+
+        private static final ForkJoinPool POOL = new ForkJoinPool(
+                Math.max(MIN_PARALLELISM, 2 * Runtime.getRuntime().availableProcessors()));
+    }
+}
@@ -0,0 +1,12 @@
+package org.symly.files;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * A file system entry along with its attributes, read without following symbolic links.
+ *
+ * @param path the path of the entry
+ * @param attributes the attributes of the entry
+ */
+public record PathAttributes(Path path, BasicFileAttributes attributes) {}
@@ -0,0 +1,62 @@
+package org.symly.files;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+
+/**
+ * A visitor of the entries walked by {@link FileSystemReader#walkSorted(Path, SortedFileVisitor)}.
+ * <p>Entries are visited in {@link FileSystemReader#WALK_ORDER}, a directory being visited right before its content.
+ * The visitor decides for each entry which value, if any, the walk should produce, and whether the content of a
+ * directory should be walked. Once the content of a directory has been listed, the visitor can revise its decision
+ * from that listing in {@link #enter(Path, Visit, List)}.</p>
+ *
+ * @param <T> the type of the values produced by the walk
+ */
+@FunctionalInterface
+public interface SortedFileVisitor<T> {
+
+    /**
+     * Visits an entry of the walk.
+     *
+     * @param path the path of the entry
+     * @param attrs the attributes of the entry, read without following symbolic links
+     * @return the result of the visit
+     */
+    Visit<T> visit(Path path, BasicFileAttributes attrs);
+
+    /**
+     * Enters a directory which content is to be walked, once its content has been listed and before it is walked, so
+     * that the visitor can learn about the directory from its content without querying the file system again.
+     *
+     * @param dir the path of the directory
+     * @param visit the result of the visit of the directory
+     * @param content the content of the directory along with the attributes of each entry, sorted by name
+     * @return the result of the visit of the directory, which content is only walked if still requested
+     */
+    default Visit<T> enter(Path dir, Visit<T> visit, List<PathAttributes> content) {
+        return visit;
+    }
+
+    /**
+     * The result of the visit of an entry.
+     *
+     * @param value the value produced by the walk for the entry, or {@code null} if there is none
+     * @param walkContent {@code true} if the content of the entry should be walked
+     * @param <T> the type of the values produced by the walk
+     */
+    record Visit<T>(T value, boolean walkContent) {
+
+        public static <T> Visit<T> skip() {
+            return new Visit<>(null, false);
+        }
+
+        public static <T> Visit<T> of(T value) {
+            return new Visit<>(value, false);
+        }
+
+        public static <T> Visit<T> withContent(T value) {
+            return new Visit<>(value, true);
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package org.symly.files;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+import org.symly.cli.SymlyExecutionException;
+import org.symly.files.SortedFileVisitor.Visit;
+
+/**
+ * The lazy depth-first walk implementing {@link FileSystemReader#walkSorted(Path, SortedFileVisitor)}.
+ * <p>The content of a directory is listed along with the attributes of its entries, and sorted, only when the walk
+ * enters it, and only the content of the directories leading to the current entry is held in memory.</p>
+ */
+class SortedWalk<T> implements Iterator<T> {
+
+    private static final Comparator<PathAttributes> BY_NAME =
+            Comparator.comparing(entry -> entry.path().getFileName().toString());
+
+    private final FileSystemReader fsReader;
+
+    private final SortedFileVisitor<T> visitor;
+
+    /**
+     * The content remaining to be walked of the directories leading to the current entry, the innermost directory
+     * being the first element.
+     */
+    private final Deque<Iterator<PathAttributes>> directories = new ArrayDeque<>();
+
+    private Path start;
+
+    private T next;
+
+    SortedWalk(FileSystemReader fsReader, Path start, SortedFileVisitor<T> visitor) {
+        this.fsReader = fsReader;
+        this.start = start;
+        this.visitor = visitor;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (next == null) {
+            if (start != null) {
+                next = visit(start, readAttributes(start));
+                start = null;
+            } else if (directories.isEmpty()) {
+                return false;
+            } else if (directories.element().hasNext()) {
+                PathAttributes entry = directories.element().next();
+                next = visit(entry.path(), entry.attributes());
+            } else {
+                directories.pop();
+            }
+        }
+        return true;
+    }
+
+    private BasicFileAttributes readAttributes(Path path) {
+        try {
+            return fsReader.readAttributes(path);
+        } catch (IOException e) {
+            throw new SymlyExecutionException("Unable to read directory %s: %s".formatted(path, e.getMessage()), e);
+        }
+    }
+
+    private T visit(Path path, BasicFileAttributes attrs) {
+        Visit<T> visit = visitor.visit(path, attrs);
+        if (visit.walkContent()) {
+            List<PathAttributes> content;
+            try (Stream<PathAttributes> entries = fsReader.listAttributes(path)) {
+                content = entries.sorted(BY_NAME).toList();
+            } catch (IOException e) {
+                throw new SymlyExecutionException("Unable to read directory %s: %s".formatted(path, e.getMessage()), e);
+            }
+            visit = visitor.enter(path, visit, content);
+            if (visit.walkContent()) {
+                directories.push(content.iterator());
+            }
+        }
+        return visit.value();
+    }
+
+    @Override
+    public T next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        T value = next;
+        next = null;
+        return value;
+    }
+}
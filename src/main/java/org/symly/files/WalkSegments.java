@@ -0,0 +1,52 @@
+package org.symly.files;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * The values produced by a walk of which sub-trees are walked by forked tasks, as a sequence of segments being either
+ * values produced by the walk itself or values produced by a forked task. Joining the segments returns the values in
+ * the order in which a walk of the whole tree would have produced them.
+ *
+ * @param <T> the type of the values produced by the walk
+ */
+public class WalkSegments<T> implements Consumer<T> {
+
+    private final List<Supplier<List<T>>> segments = new ArrayList<>();
+
+    private List<T> currentSegment;
+
+    public WalkSegments() {
+        newSegment();
+    }
+
+    @Override
+    public void accept(T value) {
+        currentSegment.add(value);
+    }
+
+    /**
+     * Adds the values produced by a forked task walking the sub-tree skipped by the walk at its current position.
+     *
+     * @param task the forked task
+     */
+    public void add(ForkJoinTask<List<T>> task) {
+        segments.add(task::join);
+        newSegment();
+    }
+
+    private void newSegment() {
+        List<T> segment = new ArrayList<>();
+        segments.add(() -> segment);
+        currentSegment = segment;
+    }
+
+    public List<T> join() {
+        List<T> values = new ArrayList<>();
+        segments.forEach(segment -> values.addAll(segment.get()));
+        return values;
+    }
+}
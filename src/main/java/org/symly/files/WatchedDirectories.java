@@ -0,0 +1,245 @@
+package org.symly.files;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_DELETE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+import static java.nio.file.StandardWatchEventKinds.OVERFLOW;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.symly.cli.SymlyExecutionException;
+
+/**
+ * The directories read through a {@link FileSystemReader}, watched for changes with a {@link WatchService}.
+ * <p>The content of the directories listed through the {@link FileSystemReader} returned by
+ * {@link #reader(FileSystemReader)} is kept in memory, as well as the content of the files read with
+ * {@link FileSystemReader#lines(Path)}, and the directories are registered with the watch service. They are only
+ * read again once a change has been reported in them, so that computing again a result derived from the file system
+ * only lists the directories which changed since the last computation.</p>
+ * <p>Paths which are only read through their attributes can also be {@link #watch(Path) watched}, so that their
+ * changes are reported even if their directory is never listed.</p>
+ * <p>Changes are reported asynchronously by the watch service: a change made right before
+ * {@link #pollChanges()} is called may not be reported yet.</p>
+ */
+public class WatchedDirectories implements Closeable {
+
+    private final WatchService watchService;
+
+    /**
+     * The directories registered with the {@link #watchService} by their watch key.
+     */
+    private final Map<WatchKey, Path> directories = new ConcurrentHashMap<>();
+
+    /**
+     * The directories registered with the {@link #watchService}.
+     */
+    private final Set<Path> watched = ConcurrentHashMap.newKeySet();
+
+    /**
+     * The content of the directories listed since they last changed.
+     */
+    private final Map<Path, List<Path>> listings = new ConcurrentHashMap<>();
+
+    /**
+     * The content of the files read since they last changed.
+     */
+    private final Map<Path, List<String>> contents = new ConcurrentHashMap<>();
+
+    private WatchedDirectories(WatchService watchService) {
+        this.watchService = watchService;
+    }
+
+    public static WatchedDirectories create() {
+        try {
+            return new WatchedDirectories(FileSystems.getDefault().newWatchService());
+        } catch (IOException e) {
+            throw new SymlyExecutionException("Unable to watch the file system: %s".formatted(e.getMessage()), e);
+        }
+    }
+
+    /**
+     * Returns a {@link FileSystemReader} watching the directories it reads.
+     *
+     * @param delegate the reader used to read the file system
+     * @return a {@link FileSystemReader} watching the directories it reads
+     */
+    public FileSystemReader reader(FileSystemReader delegate) {
+        return new WatchingReader(delegate);
+    }
+
+    /**
+     * Watches the directory containing a path, or its closest ancestor which can be watched, so that the changes to
+     * the path are reported even if its directory is never listed. Watching an ancestor reports the creation of the
+     * missing directories, which are then watched once the path is watched again.
+     *
+     * @param path the path to watch
+     * @return {@code true} if a directory which was not watched yet is now watched
+     */
+    public boolean watch(Path path) {
+        for (Path dir = path.getParent(); dir != null; dir = dir.getParent()) {
+            try {
+                return register(dir);
+            } catch (IOException e) {
+                // The directory does not exist, or cannot be watched
+            }
+        }
+        return false;
+    }
+
+    private boolean register(Path dir) throws IOException {
+        if (watched.contains(dir)) {
+            return false;
+        }
+        directories.put(dir.register(watchService, ENTRY_CREATE, ENTRY_DELETE, ENTRY_MODIFY), dir);
+        watched.add(dir);
+        return true;
+    }
+
+    /**
+     * Waits for changes in the watched directories.
+     *
+     * @return {@code true} once changes have been reported
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public boolean awaitChanges() throws InterruptedException {
+        WatchKey key;
+        try {
+            key = watchService.take();
+        } catch (ClosedWatchServiceException e) {
+            return false;
+        }
+        process(key);
+        pollChanges();
+        return true;
+    }
+
+    /**
+     * Processes the changes reported in the watched directories without waiting for new ones.
+     *
+     * @return {@code true} if changes have been reported since the last call
+     */
+    public boolean pollChanges() {
+        boolean changed = false;
+        try {
+            for (WatchKey key = watchService.poll(); key != null; key = watchService.poll()) {
+                process(key);
+                changed = true;
+            }
+        } catch (ClosedWatchServiceException e) {
+            // Nothing more will ever change
+        }
+        return changed;
+    }
+
+    private void process(WatchKey key) {
+        Path dir = directories.get(key);
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == OVERFLOW || dir == null) {
+                // Events were lost, nothing can be trusted anymore
+                listings.clear();
+                contents.clear();
+            } else {
+                listings.remove(dir);
+                Path path = dir.resolve((Path) event.context());
+                listings.remove(path);
+                contents.remove(path);
+            }
+        }
+        if (!key.reset()) {
+            // The directory is not accessible anymore: the directories it contained neither
+            directories.remove(key);
+            watched.removeIf(path -> dir == null || path.startsWith(dir));
+            listings.keySet().removeIf(path -> dir == null || path.startsWith(dir));
+            contents.keySet().removeIf(path -> dir == null || path.startsWith(dir));
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+
+    private class WatchingReader implements FileSystemReader {
+
+        private final FileSystemReader delegate;
+
+        WatchingReader(FileSystemReader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Stream<Path> list(Path dir) throws IOException {
+            List<Path> listing = listings.get(dir);
+            if (listing == null) {
+                // Watching before listing so that no change can be missed in between
+                register(dir);
+                try (Stream<Path> content = delegate.list(dir)) {
+                    listing = content.toList();
+                }
+                listings.put(dir, listing);
+            }
+            return listing.stream();
+        }
+
+        @Override
+        public Stream<String> lines(Path path) throws IOException {
+            List<String> content = contents.get(path);
+            if (content == null) {
+                // Modifying a file is reported as a change in its directory
+                register(path.getParent());
+                try (Stream<String> lines = delegate.lines(path)) {
+                    content = lines.toList();
+                }
+                contents.put(path, content);
+            }
+            return content.stream();
+        }
+
+        @Override
+        public boolean exists(Path path) {
+            return delegate.exists(path);
+        }
+
+        @Override
+        public boolean isReadable(Path path) {
+            return delegate.isReadable(path);
+        }
+
+        @Override
+        public boolean isDirectory(Path path) {
+            return delegate.isDirectory(path);
+        }
+
+        @Override
+        public boolean isSymbolicLink(Path path) {
+            return delegate.isSymbolicLink(path);
+        }
+
+        @Override
+        public Path readSymbolicLink(Path link) {
+            return delegate.readSymbolicLink(link);
+        }
+
+        @Override
+        public Stream<Path> walk(Path path) throws IOException {
+            return delegate.walk(path);
+        }
+
+        @Override
+        public BasicFileAttributes readAttributes(Path path) throws IOException {
+            return delegate.readAttributes(path);
+        }
+    }
+}
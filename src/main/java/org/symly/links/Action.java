@@ -2,14 +2,12 @@ package org.symly.links;
 
 import java.nio.file.Path;
 import org.symly.Result;
-import org.symly.files.FileSystemReader;
-import org.symly.files.FileSystemWriter;
 
 public sealed interface Action permits NoOpAction, CreateLinkAction, DeleteLinkAction, ConflictAction, DeleteAction {
 
     Path path();
 
-    Result<Void, Code> apply(FileSystemReader fsReader, FileSystemWriter fsWriter);
+    Result<Void, Code> apply(ActionContext context);
 
     static Action upToDate(Link link) {
         return new NoOpAction(link);
@@ -0,0 +1,93 @@
+package org.symly.links;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.symly.files.FileSystemReader;
+import org.symly.files.FileSystemWriter;
+
+/**
+ * The context in which {@link Action} are applied.
+ * <p>It remembers what is already known of the file system so that actions do not query it again:</p>
+ * <ul>
+ *     <li>The directories known to exist, either because they contain an existing entry or because they have been
+ *     created, so that the existence of the parent directory of links is checked at most once per directory.</li>
+ *     <li>The targets found while scanning the repositories, which existence does not need to be checked again.</li>
+ * </ul>
+ * <p>A context can be shared by actions applied concurrently.</p>
+ */
+public class ActionContext {
+
+    private final FileSystemReader fsReader;
+    private final FileSystemWriter fsWriter;
+    private final Set<Path> existingDirectories = ConcurrentHashMap.newKeySet();
+    private final Set<Path> scannedTargets = ConcurrentHashMap.newKeySet();
+
+    public ActionContext(FileSystemReader fsReader, FileSystemWriter fsWriter) {
+        this.fsReader = fsReader;
+        this.fsWriter = fsWriter;
+    }
+
+    public FileSystemReader fsReader() {
+        return fsReader;
+    }
+
+    public FileSystemWriter fsWriter() {
+        return fsWriter;
+    }
+
+    /**
+     * Records that a directory exists.
+     *
+     * @param directory the existing directory
+     */
+    public void directoryExists(Path directory) {
+        existingDirectories.add(directory);
+    }
+
+    /**
+     * Records that a target has been found while scanning the repositories.
+     *
+     * @param target the target found in the repositories
+     */
+    public void targetScanned(Path target) {
+        scannedTargets.add(target);
+    }
+
+    /**
+     * Returns whether a link target exists, without querying the file system if it has been found while scanning
+     * the repositories.
+     *
+     * @param target the target of a link
+     * @return whether the target exists
+     */
+    public boolean targetExists(Path target) {
+        return scannedTargets.contains(target) || fsReader.exists(target);
+    }
+
+    /**
+     * Creates a directory, along with its missing parents, unless it is already known to exist.
+     *
+     * @param directory the directory to create
+     * @throws IOException if the directory cannot be created
+     */
+    public void createDirectories(Path directory) throws IOException {
+        if (existingDirectories.contains(directory)) {
+            return;
+        }
+        if (!fsReader.exists(directory)) {
+            fsWriter.createDirectories(directory);
+        }
+        existingDirectories.add(directory);
+    }
+
+    /**
+     * Records that an entry has been deleted, so that it is not considered to be an existing directory anymore.
+     *
+     * @param path the deleted entry
+     */
+    public void deleted(Path path) {
+        existingDirectories.remove(path);
+    }
+}
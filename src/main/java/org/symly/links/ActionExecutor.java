@@ -0,0 +1,210 @@
+package org.symly.links;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.symly.Result;
+import org.symly.files.FileSystemReader;
+import org.symly.files.FileSystemWriter;
+import org.symly.files.IoPool;
+
+/**
+ * Applies the {@link Action} bringing {@link LinkState} up to date.
+ * <p>When executed concurrently, the link states are grouped in batches by the parent directory of their source and
+ * the batches are applied independently of each other on the {@link IoPool}, the actions of a batch being applied
+ * one after the other. The link states of a directory being overwritten are applied within the batch of that
+ * directory so that they cannot run concurrently with its deletion.</p>
+ * <p>The orphan links found within a source which is overwritten by a link are not deleted: they have been found
+ * before the source was replaced, and their paths now lead into the repository the new link points to.</p>
+ * <p>The actions share an {@link ActionContext} to which the targets of the link states, which have just been found in
+ * the repositories, and the parent directories of their existing sources are known.</p>
+ * <p>In both cases, the outcome of the actions is reported in the order of the link states. When {@code stopOnError}
+ * is set, the execution stops at the first failing action: the batches which have not started yet are skipped and
+ * nothing is reported past the failing action.</p>
+ */
+public class ActionExecutor {
+
+    private final FileSystemReader fsReader;
+    private final ActionContext context;
+    private final boolean force;
+    private final boolean stopOnError;
+    private final boolean parallel;
+
+    /**
+     * @param force whether existing files and directories should be overwritten (see
+     *     {@link LinkState#toActions(FileSystemReader, boolean)})
+     * @param stopOnError whether the execution should stop at the first failing action
+     * @param parallel whether the actions should be applied concurrently
+     */
+    public ActionExecutor(
+            FileSystemReader fsReader,
+            FileSystemWriter fsWriter,
+            boolean force,
+            boolean stopOnError,
+            boolean parallel) {
+        this.fsReader = fsReader;
+        this.context = new ActionContext(fsReader, fsWriter);
+        this.force = force;
+        this.stopOnError = stopOnError;
+        this.parallel = parallel;
+    }
+
+    public void execute(Stream<LinkState> linkStates, Listener listener) {
+        Stream<LinkState> applied = linkStates.filter(new WithoutReplacedContent());
+        if (parallel) {
+            // The orphans within replaced sources are dropped before batching, as the new links would otherwise be
+            // created before the orphans are deleted through them in the same batch
+            executeConcurrently(applied.toList(), listener);
+            return;
+        }
+        Iterator<LinkState> iterator = applied.iterator();
+        boolean failed = false;
+        while (!failed && iterator.hasNext()) {
+            LinkState linkState = iterator.next();
+            List<Outcome> outcomes = apply(linkState);
+            report(linkState, outcomes, listener);
+            failed = hasFailed(outcomes);
+        }
+    }
+
+    private void executeConcurrently(List<LinkState> linkStates, Listener listener) {
+        // The index of the first link state which actions failed
+        AtomicInteger failure = new AtomicInteger(Integer.MAX_VALUE);
+        Object[] outcomes = new Object[linkStates.size()];
+        ForkJoinPool pool = IoPool.get();
+        List<ForkJoinTask<?>> tasks = batches(linkStates).stream()
+                .<ForkJoinTask<?>>map(batch -> pool.submit(() -> apply(linkStates, batch, outcomes, failure)))
+                .toList();
+        tasks.forEach(ForkJoinTask::join);
+        for (int i = 0; i <= Math.min(failure.get(), outcomes.length - 1); i++) {
+            if (outcomes[i] instanceof RuntimeException e) {
+                throw e;
+            }
+            @SuppressWarnings("unchecked")
+            List<Outcome> linkStateOutcomes = (List<Outcome>) outcomes[i];
+            report(linkStates.get(i), linkStateOutcomes, listener);
+        }
+    }
+
+    /**
+     * Groups the link states by the parent directory of their source.
+     *
+     * @return the indexes of the link states of each batch, in increasing order
+     */
+    private List<List<Integer>> batches(List<LinkState> linkStates) {
+        Map<Path, List<Integer>> batches = new LinkedHashMap<>();
+        Path overwritten = null;
+        Path overwrittenBatch = null;
+        for (int i = 0; i < linkStates.size(); i++) {
+            Path source = linkStates.get(i).source();
+            Path batch = source.getParent();
+            if (overwritten != null && source.startsWith(overwritten)) {
+                // The content of a directory is walked right after the directory itself
+                batch = overwrittenBatch;
+            } else if (force && linkStates.get(i).type() == LinkState.Type.FILE_CONFLICT) {
+                overwritten = source;
+                overwrittenBatch = batch;
+            } else {
+                overwritten = null;
+            }
+            batches.computeIfAbsent(batch, key -> new ArrayList<>()).add(i);
+        }
+        return List.copyOf(batches.values());
+    }
+
+    private void apply(List<LinkState> linkStates, List<Integer> batch, Object[] outcomes, AtomicInteger failure) {
+        for (int i : batch) {
+            if (i > failure.get()) {
+                // Link states following a failure are not applied
+                return;
+            }
+            try {
+                List<Outcome> linkStateOutcomes = apply(linkStates.get(i));
+                outcomes[i] = linkStateOutcomes;
+                if (hasFailed(linkStateOutcomes)) {
+                    failure.accumulateAndGet(i, Math::min);
+                }
+            } catch (RuntimeException e) {
+                outcomes[i] = e;
+                failure.accumulateAndGet(i, Math::min);
+            }
+        }
+    }
+
+    private List<Outcome> apply(LinkState linkState) {
+        if (linkState.desiredTarget() != null) {
+            context.targetScanned(linkState.desiredTarget());
+        }
+        if (!(linkState.currentState() instanceof LinkState.Entry.MissingEntry)) {
+            context.directoryExists(linkState.source().getParent());
+        }
+        List<Outcome> outcomes = new ArrayList<>();
+        for (Action action : linkState.toActions(fsReader, force)) {
+            Outcome outcome = new Outcome(action, action.apply(context));
+            outcomes.add(outcome);
+            if (stopOnError && outcome.isError()) {
+                break;
+            }
+        }
+        return outcomes;
+    }
+
+    private boolean hasFailed(List<Outcome> outcomes) {
+        return stopOnError
+                && !outcomes.isEmpty()
+                && outcomes.get(outcomes.size() - 1).isError();
+    }
+
+    private static void report(LinkState linkState, List<Outcome> outcomes, Listener listener) {
+        for (Outcome outcome : outcomes) {
+            listener.onApplied(linkState, outcome.action(), outcome.result());
+        }
+    }
+
+    /**
+     * Filters out the orphan links found within the sources which are replaced by a link, and which are walked right
+     * after them. They were found before their source was replaced, and deleting them now would delete the entries of
+     * the repository the new link points to.
+     */
+    private class WithoutReplacedContent implements Predicate<LinkState> {
+
+        private Path replaced;
+
+        @Override
+        public boolean test(LinkState linkState) {
+            if (replaced != null
+                    && linkState.desiredTarget() == null
+                    && linkState.source().startsWith(replaced)) {
+                return false;
+            }
+            if (force && linkState.type() == LinkState.Type.FILE_CONFLICT) {
+                replaced = linkState.source();
+            }
+            return true;
+        }
+    }
+
+    private record Outcome(Action action, Result<Void, Action.Code> result) {
+
+        boolean isError() {
+            return result instanceof Result.ErrorResult;
+        }
+    }
+
+    /**
+     * Receives the outcome of the actions, in the order of the link states.
+     */
+    @FunctionalInterface
+    public interface Listener {
+
+        void onApplied(LinkState linkState, Action action, Result<Void, Action.Code> result);
+    }
+}
@@ -4,9 +4,11 @@ import java.nio.file.Path;
 
 public class Configuration {
 
+    public static final String SYMLINK_MARKER = ".symlink";
+
     private Configuration() {}
 
     public static Path symlinkMarker(Path directory) {
-        return directory.resolve(".symlink");
+        return directory.resolve(SYMLINK_MARKER);
     }
 }
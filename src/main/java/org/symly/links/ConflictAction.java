@@ -2,8 +2,6 @@ package org.symly.links;
 
 import java.nio.file.Path;
 import org.symly.Result;
-import org.symly.files.FileSystemReader;
-import org.symly.files.FileSystemWriter;
 
 public record ConflictAction(Link link) implements Action {
 
@@ -13,8 +11,8 @@ public record ConflictAction(Link link) implements Action {
     }
 
     @Override
-    public Result<Void, Code> apply(FileSystemReader fsReader, FileSystemWriter fsWriter) {
-        if (!fsReader.exists(link.target())) {
+    public Result<Void, Code> apply(ActionContext context) {
+        if (!context.targetExists(link.target())) {
             return Result.error(new Code(Code.State.INVALID_DESTINATION, null));
         }
         return Result.error(new Code(Code.State.CONFLICT, null));
@@ -1,121 +1,234 @@
 package org.symly.links;
 
-import java.io.IOException;
 import java.nio.file.Path;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
-import org.symly.cli.SymlyExecutionException;
 import org.symly.files.FileSystemReader;
+import org.symly.files.IoPool;
 import org.symly.repositories.MainDirectory;
 import org.symly.repositories.Repositories;
+import org.symly.repositories.RepositoriesScan;
+import org.symly.stats.Stats;
+import org.symly.stats.Stats.Phase;
 
 /**
  * The {@code Context} combines the information of where from and where to the links should be created.
  *
  * @param mainDirectory The main directory in which the links should be created.
  * @param repositories The repositories containing the files to be linked in {@link #mainDirectory}.
- * @param orphanMaxDepth the maximum depth for orphan-links lookup.
+ * @param orphanLookup the rules of the orphan-links lookup.
+ * @param manifest the manifest of the links created in {@link #mainDirectory}, or {@code null} if none is kept.
+ * @param stats the statistics in which the phases of the computation of the links are timed.
  */
-public record Context(MainDirectory mainDirectory, Repositories repositories, int orphanMaxDepth) {
+public record Context(
+        MainDirectory mainDirectory,
+        Repositories repositories,
+        OrphanLookup orphanLookup,
+        LinkManifest manifest,
+        Stats stats) {
 
     public Context {
         Objects.requireNonNull(mainDirectory);
         Objects.requireNonNull(repositories);
+        Objects.requireNonNull(orphanLookup);
+        Objects.requireNonNull(stats);
     }
 
-    public Stream<LinkState> status(FileSystemReader fsReader) {
-        LinkStateIterator it = new LinkStateIterator(this, fsReader);
-        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, 0), false);
+    public Context(
+            MainDirectory mainDirectory, Repositories repositories, OrphanLookup orphanLookup, LinkManifest manifest) {
+        this(mainDirectory, repositories, orphanLookup, manifest, new Stats());
     }
-}
-
-class LinkStateIterator implements Iterator<LinkState> {
 
-    private final PriorityQueue<Entry> remainingEntries = new PriorityQueue<>(Comparator.comparing(Entry::path));
-    private final MainDirectory mainDirectory;
-    private final Repositories repositories;
-    private final Set<Path> existingLinks;
-    private final Set<Path> allDirectoriesNames;
-    private final FileSystemReader fsReader;
+    /**
+     * Returns this context without its manifest, so that orphan links are looked up by walking the main directory.
+     *
+     * @return the context without manifest
+     */
+    public Context withoutManifest() {
+        return new Context(mainDirectory, repositories, orphanLookup, null, stats);
+    }
 
-    LinkStateIterator(Context context, FileSystemReader fsReader) {
-        mainDirectory = context.mainDirectory();
-        this.fsReader = fsReader;
-        this.repositories = context.repositories();
-        int orphanMaxDepth = context.orphanMaxDepth();
-        List<Link> links = repositories.links(mainDirectory);
-        existingLinks = links.stream().map(Link::source).collect(Collectors.toSet());
-        links.forEach(this::addLink);
-        allDirectoriesNames = repositories.allDirectoriesNames().stream()
-                .map(p -> mainDirectory.resolve(p).toAbsolutePath().normalize())
-                .collect(Collectors.toSet());
-        allDirectoriesNames.forEach(p -> addDir(p, orphanMaxDepth));
+    public Stream<LinkState> status(FileSystemReader fsReader) {
+        return stats.timed(Phase.LINK_COMPUTATION, () -> {
+            Iterator<LinkState> it = new LinkStateIterator(this, fsReader, repositories.scan(stats));
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(it, 0), false);
+        });
     }
 
-    public void addLink(Link link) {
-        remainingEntries.add(new RepositoryLink(link));
+    /**
+     * Returns whether all the links are up to date, i.e. whether the {@link #status(FileSystemReader)} only contains
+     * {@link LinkState.Type#UP_TO_DATE} states, stopping at the first link which is not.
+     * <p>Unlike the status, all the links expected from the repositories are checked before looking up orphan links,
+     * so that a missing or conflicting link is found as the repositories are being scanned, before the main directory
+     * is walked. Once they are all known to be up to date, the links of the {@link #manifest} having the same sources
+     * are not read again, so that checking a main directory in sync with a manifest only reads each link once.</p>
+     *
+     * @param fsReader the file system reader
+     * @return whether all the links are up to date
+     */
+    public boolean upToDate(FileSystemReader fsReader) {
+        RepositoriesScan scan = repositories.scan(stats);
+        Set<Path> sources = new HashSet<>();
+        try (Stream<Link> links = scan.links(mainDirectory)) {
+            Iterator<Link> it = links.iterator();
+            while (it.hasNext()) {
+                Link link = it.next();
+                LinkState linkState = new RepositoryLink(link).toLinkState(fsReader, mainDirectory);
+                if (linkState.type() != LinkState.Type.UP_TO_DATE) {
+                    return false;
+                }
+                sources.add(link.source());
+            }
+        }
+        if (manifest != null && manifest.exists() && fsReader.exists(mainDirectory.toPath())) {
+            try (Stream<Link> orphanLinks = manifest.links(fsReader, repositories, sources)) {
+                return orphanLinks.findAny().isEmpty();
+            }
+        }
+        try (Stream<Link> orphanLinks = repositoryLinks(fsReader, scan)) {
+            return orphanLinks.allMatch(link -> sources.contains(link.source()));
+        }
     }
 
-    private void addDir(Path path, int orphanMaxDepth) {
-        remainingEntries.add(new DirectoryToAnalyze(path, orphanMaxDepth));
+    /**
+     * Returns the links of the main directory pointing to the repositories, in {@link FileSystemReader#WALK_ORDER} of
+     * their sources. They are looked up as orphan links are, either among the links of the {@link #manifest} or by
+     * walking the main directory guided by the names of the repositories' directories, without computing the links
+     * expected from the repositories. Unlike orphan links, they are looked up regardless of the exclusions and of the
+     * maximum depth overrides of the {@link #orphanLookup}, so that links expected in excluded directories are found as
+     * well.
+     *
+     * @param fsReader the file system reader
+     * @return the links of the main directory pointing to the repositories
+     */
+    public Stream<Link> repositoryLinks(FileSystemReader fsReader) {
+        return stats.timed(
+                Phase.ORPHAN_SCAN,
+                () -> repositoryLinks(
+                        fsReader, repositories.scan(stats), OrphanLookup.of(mainDirectory, orphanLookup.maxDepth())));
     }
 
-    @Override
-    public boolean hasNext() {
-        while (!remainingEntries.isEmpty()) {
-            Entry firstElement = remainingEntries.element();
-            if (firstElement instanceof DirectoryToAnalyze dir) {
-                remainingEntries.remove();
-                processDirectory(dir);
-            } else {
-                return true;
-            }
-        }
-        return false;
+    /**
+     * Returns the links of the main directory pointing to the repositories, guided by the directories of the given
+     * scan of the repositories. They are looked up with the exclusions and the maximum depth overrides of the
+     * {@link #orphanLookup}.
+     *
+     * @param fsReader the file system reader
+     * @param scan the scan of the repositories, which is scanned as far as the walk of the main directory goes, or
+     *     completed first when the main directory is walked concurrently
+     * @return the links of the main directory pointing to the repositories
+     * @see #repositoryLinks(FileSystemReader)
+     */
+    Stream<Link> repositoryLinks(FileSystemReader fsReader, RepositoriesScan scan) {
+        return repositoryLinks(fsReader, scan, orphanLookup);
     }
 
-    private void processDirectory(DirectoryToAnalyze dir) {
-        Path currentDirPath = dir.path();
-        if (!isDirectoryReadable(currentDirPath)) {
-            return;
+    private Stream<Link> repositoryLinks(FileSystemReader fsReader, RepositoriesScan scan, OrphanLookup lookup) {
+        if (!fsReader.exists(mainDirectory.toPath())) {
+            return Stream.empty();
+        }
+        if (manifest != null && manifest.exists()) {
+            return manifest.links(fsReader, repositories);
         }
-        int remainingOrphanDepthLookup = dir.remainingOrphanDepthLookup() - 1;
-        try (Stream<Path> paths = fsReader.list(currentDirPath)) {
-            paths.forEach(path -> processDirectoryEntry(remainingOrphanDepthLookup, path));
-        } catch (IOException e) {
-            throw new SymlyExecutionException(
-                    "Unable to read directory %s: %s".formatted(currentDirPath, e.getMessage()), e);
+        if (repositories.parallel()) {
+            // The sub-trees of the main directory are scanned in no particular order, so the scan is completed first
+            Set<Path> repositoriesDirectories = scan.directoriesNames().stream()
+                    .map(p -> mainDirectory.resolve(p).toAbsolutePath().normalize())
+                    .collect(Collectors.toSet());
+            return IoPool.get()
+                    .invoke(new OrphanLinksScanTask(
+                            fsReader,
+                            repositories,
+                            repositoriesDirectories::contains,
+                            lookup,
+                            mainDirectory.toPath(),
+                            -1))
+                    .stream();
         }
+        // The walk visits the directories in walk order, so the repositories are only scanned as far as it goes
+        Predicate<Path> directoriesNames = scan.directoriesLookup();
+        return fsReader.walkSorted(
+                mainDirectory.toPath(),
+                new OrphanLinksScanner(
+                        fsReader, repositories, path -> directoriesNames.test(mainDirectory.relativize(path)), lookup));
     }
+}
+
+/**
+ * Iterates over the {@link LinkState} of the links of a {@link Context}, in {@link FileSystemReader#WALK_ORDER} of
+ * their sources.
+ * <p>The links expected from the repositories and the orphan links found in the main directory are both produced
+ * in that order, so that they only need to be merged. Both are derived from the same {@link RepositoriesScan}, so that
+ * the repositories are only scanned once. They are produced lazily, unless the repositories are scanned
+ * concurrently in which case the orphan links are scanned concurrently as well, by {@link OrphanLinksScanTask}.</p>
+ * <p>When a {@link LinkManifest} has been saved, the orphan links are looked up among its links instead of by walking
+ * the main directory.</p>
+ */
+class LinkStateIterator implements Iterator<LinkState> {
+
+    private final MainDirectory mainDirectory;
+    private final FileSystemReader fsReader;
+    private final Iterator<Link> links;
+    private final Iterator<Link> orphanLinks;
+    private Link nextLink;
+    private Link nextOrphanLink;
 
-    private boolean isDirectoryReadable(Path currentDirPath) {
-        return fsReader.isDirectory(currentDirPath) && fsReader.isReadable(currentDirPath);
+    LinkStateIterator(Context context, FileSystemReader fsReader, RepositoriesScan scan) {
+        mainDirectory = context.mainDirectory();
+        this.fsReader = fsReader;
+        links = scan.links(mainDirectory).iterator();
+        Stats stats = context.stats();
+        orphanLinks = stats.timed(Phase.ORPHAN_SCAN, () -> context.repositoryLinks(fsReader, scan))
+                .iterator();
     }
 
-    private void processDirectoryEntry(int remainingOrphanDepthLookup, Path path) {
-        if (remainingOrphanDepthLookup > 0 && isDirectoryReadable(path) && !allDirectoriesNames.contains(path)) {
-            addDir(path, remainingOrphanDepthLookup);
-        } else if (fsReader.isSymbolicLink(path)) {
-            Path target = fsReader.readSymbolicLink(path);
-            if (repositories.containsPath(target) && !existingLinks.contains(path)) {
-                remainingEntries.add(new OrphanLink(new Link(path, target)));
-            }
+    @Override
+    public boolean hasNext() {
+        if (nextLink == null && links.hasNext()) {
+            nextLink = links.next();
+        }
+        if (nextOrphanLink == null && orphanLinks.hasNext()) {
+            nextOrphanLink = orphanLinks.next();
         }
+        return nextLink != null || nextOrphanLink != null;
     }
 
     @Override
     public LinkState next() {
-        Entry entry = remainingEntries.poll();
-        if (entry == null) {
+        if (!hasNext()) {
             throw new NoSuchElementException();
         }
+        int comparison = compareSources(nextLink, nextOrphanLink);
+        Entry entry;
+        if (comparison <= 0) {
+            entry = new RepositoryLink(nextLink);
+            nextLink = null;
+            if (comparison == 0) {
+                // The link is expected, hence not an orphan
+                nextOrphanLink = null;
+            }
+        } else {
+            entry = new OrphanLink(nextOrphanLink);
+            nextOrphanLink = null;
+        }
         return entry.toLinkState(fsReader, mainDirectory);
     }
+
+    private static int compareSources(Link link, Link orphanLink) {
+        if (link == null) {
+            return 1;
+        }
+        if (orphanLink == null) {
+            return -1;
+        }
+        return FileSystemReader.WALK_ORDER.compare(link.source(), orphanLink.source());
+    }
 }
 
-sealed interface Entry permits RepositoryLink, OrphanLink, DirectoryToAnalyze {
+sealed interface Entry permits RepositoryLink, OrphanLink {
     Path path();
 
     LinkState toLinkState(FileSystemReader fsReader, MainDirectory mainDirectory);
@@ -158,11 +271,3 @@ record OrphanLink(Link link) implements Entry {
         return new LinkState(mainDirectory, link.source(), LinkState.Entry.linkEntry(link.target()), null);
     }
 }
-
-record DirectoryToAnalyze(Path path, int remainingOrphanDepthLookup) implements Entry {
-
-    @Override
-    public LinkState toLinkState(FileSystemReader fsReader, MainDirectory mainDirectory) {
-        throw new UnsupportedOperationException("");
-    }
-}
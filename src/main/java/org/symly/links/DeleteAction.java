@@ -3,15 +3,14 @@ package org.symly.links;
 import java.io.IOException;
 import java.nio.file.Path;
 import org.symly.Result;
-import org.symly.files.FileSystemReader;
-import org.symly.files.FileSystemWriter;
 
 public record DeleteAction(Path path) implements Action {
 
     @Override
-    public Result<Void, Code> apply(FileSystemReader fsReader, FileSystemWriter fsWriter) {
+    public Result<Void, Code> apply(ActionContext context) {
         try {
-            fsWriter.deleteIfExists(path);
+            context.fsWriter().deleteIfExists(path);
+            context.deleted(path);
             return Result.success(null);
         } catch (IOException e) {
             return Result.error(new Code(Code.State.ERROR, "Unable to delete link " + e.getMessage()));
@@ -3,8 +3,8 @@ package org.symly.links;
 import java.io.IOException;
 import java.nio.file.Path;
 import org.symly.Result;
+import org.symly.cli.SymlyExecutionException;
 import org.symly.files.FileSystemReader;
-import org.symly.files.FileSystemWriter;
 
 public record DeleteLinkAction(Link link) implements Action {
 
@@ -14,12 +14,30 @@ public record DeleteLinkAction(Link link) implements Action {
     }
 
     @Override
-    public Result<Void, Code> apply(FileSystemReader fsReader, FileSystemWriter fsWriter) {
+    public Result<Void, Code> apply(ActionContext context) {
+        if (!isUnchanged(context.fsReader())) {
+            return Result.error(new Code(
+                    Code.State.ERROR, "Link %s does not point to %s anymore".formatted(link.source(), link.target())));
+        }
         try {
-            fsWriter.deleteIfExists(link.source());
+            context.fsWriter().deleteIfExists(link.source());
+            context.deleted(link.source());
             return Result.success(null);
         } catch (IOException e) {
             return Result.error(new Code(Code.State.ERROR, "Unable to delete link " + e.getMessage()));
         }
     }
+
+    /**
+     * Returns whether the source is still a symbolic link to the target. The link may have been read before one of the
+     * directories leading to it was replaced by a link, in which case its path would now lead to a repository.
+     */
+    private boolean isUnchanged(FileSystemReader fsReader) {
+        try {
+            return fsReader.readSymbolicLink(link.source()).equals(link.target());
+        } catch (SymlyExecutionException e) {
+            // Not a symbolic link anymore
+            return false;
+        }
+    }
 }
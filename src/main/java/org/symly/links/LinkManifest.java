@@ -0,0 +1,242 @@
+package org.symly.links;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.stream.Stream;
+import org.symly.cli.SymlyExecutionException;
+import org.symly.files.FileSystemReader;
+import org.symly.repositories.MainDirectory;
+import org.symly.repositories.Repositories;
+
+/**
+ * The manifest of the links created by symly in a {@link MainDirectory}.
+ * <p>Once a manifest exists, the orphan links are looked up among the links it lists instead of by walking the main
+ * directory, which finds them at any depth. When no manifest exists yet, the main directory is walked as usual and
+ * the manifest is created from the links brought up to date.</p>
+ * <p>The manifest is stored in a compact binary file:</p>
+ * <pre>
+ * file:  int magic, int version, int number of links, links
+ * link:  UTF source, UTF target, UTF layer, long creation time in milliseconds
+ * </pre>
+ */
+public class LinkManifest {
+
+    private static final int MAGIC = 0x53594d4d;
+    private static final int VERSION = 1;
+
+    private final Path file;
+
+    /**
+     * The links of the manifest by source.
+     */
+    private final Map<Path, ManifestEntry> entries;
+
+    /**
+     * Whether the manifest has already been saved, in which case it lists all the links created by symly.
+     */
+    private boolean saved;
+
+    private boolean modified = false;
+
+    private LinkManifest(Path file, Map<Path, ManifestEntry> entries, boolean saved) {
+        this.file = Objects.requireNonNull(file);
+        this.entries = entries;
+        this.saved = saved;
+    }
+
+    /**
+     * Returns the default location of the manifest of a main directory:
+     * {@code $XDG_STATE_HOME/symly/manifests/<main-directory-id>}, or
+     * {@code ~/.local/state/symly/manifests/<main-directory-id>} if {@code XDG_STATE_HOME} is not defined.
+     *
+     * @param mainDirectory the main directory
+     * @return the default location of the manifest of {@code mainDirectory}
+     */
+    public static Path defaultFile(MainDirectory mainDirectory) {
+        String stateHome = System.getenv("XDG_STATE_HOME");
+        Path stateDirectory = stateHome != null && !stateHome.isBlank()
+                ? Path.of(stateHome)
+                : Path.of(System.getProperty("user.home"), ".local", "state");
+        String id = UUID.nameUUIDFromBytes(mainDirectory.toString().getBytes(StandardCharsets.UTF_8))
+                .toString();
+        return stateDirectory.resolve("symly").resolve("manifests").resolve(id);
+    }
+
+    /**
+     * Loads the manifest from the given file. A manifest which does not exist, or which cannot be read, is considered
+     * as not saved yet.
+     *
+     * @param file the manifest file
+     * @return the manifest
+     */
+    public static LinkManifest load(Path file) {
+        Map<Path, ManifestEntry> entries = new TreeMap<>(FileSystemReader.WALK_ORDER);
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return new LinkManifest(file, entries, false);
+            }
+            int count = in.readInt();
+            for (int i = 0; i < count; i++) {
+                ManifestEntry entry = new ManifestEntry(
+                        Path.of(in.readUTF()),
+                        Path.of(in.readUTF()),
+                        Path.of(in.readUTF()),
+                        Instant.ofEpochMilli(in.readLong()));
+                entries.put(entry.source(), entry);
+            }
+            return new LinkManifest(file, entries, true);
+        } catch (IOException e) {
+            // A missing or unreadable manifest is rebuilt from a full scan
+            return new LinkManifest(file, new TreeMap<>(FileSystemReader.WALK_ORDER), false);
+        }
+    }
+
+    /**
+     * Returns whether the manifest has already been saved, in which case it lists all the links created by symly.
+     *
+     * @return whether the manifest has already been saved
+     */
+    public boolean exists() {
+        return saved;
+    }
+
+    /**
+     * Returns the links of the manifest which are still links to one of the repositories, in
+     * {@link FileSystemReader#WALK_ORDER} of their sources. Their targets are the current ones.
+     *
+     * @param fsReader the file system reader
+     * @param repositories the repositories
+     * @return the candidate orphan links
+     */
+    Stream<Link> links(FileSystemReader fsReader, Repositories repositories) {
+        return links(fsReader, repositories, Set.of());
+    }
+
+    /**
+     * Returns the links of the manifest which are still links to one of the repositories, except those whose sources
+     * are excluded, which are not read at all.
+     *
+     * @param fsReader the file system reader
+     * @param repositories the repositories
+     * @param excludedSources the sources of the links which are known not to be orphans
+     * @return the candidate orphan links
+     * @see #links(FileSystemReader, Repositories)
+     */
+    Stream<Link> links(FileSystemReader fsReader, Repositories repositories, Set<Path> excludedSources) {
+        if (!saved) {
+            return Stream.empty();
+        }
+        // The manifest is updated as the links are brought up to date
+        return List.copyOf(entries.keySet()).stream()
+                .filter(source -> !excludedSources.contains(source))
+                .filter(fsReader::isSymbolicLink)
+                .map(source -> new Link(source, fsReader.readSymbolicLink(source)))
+                .filter(link -> repositories.containsPath(link.target()));
+    }
+
+    /**
+     * Records a link which is up to date. Its creation time is kept if it was already recorded with the same target.
+     *
+     * @param link the link
+     * @param layer the repository containing the target of the link
+     */
+    public void linked(Link link, Path layer) {
+        ManifestEntry entry = entries.get(link.source());
+        if (entry == null
+                || !entry.target().equals(link.target())
+                || !entry.layer().equals(layer)) {
+            entries.put(link.source(), new ManifestEntry(link.source(), link.target(), layer, Instant.now()));
+            modified = true;
+        }
+    }
+
+    /**
+     * Records that a link has been deleted.
+     *
+     * @param source the source of the deleted link
+     */
+    public void unlinked(Path source) {
+        if (entries.remove(source) != null) {
+            modified = true;
+        }
+    }
+
+    /**
+     * Saves the manifest if it has been modified. A manifest which has never been saved before is only saved once it
+     * is complete, i.e. once all the links of the main directory have been recorded. If it cannot be saved, the
+     * manifest file is deleted so that the next run walks the main directory instead of relying on an incomplete
+     * manifest.
+     *
+     * @param complete whether all the links of the main directory have been recorded
+     */
+    public void save(boolean complete) {
+        if (saved ? !modified : !complete) {
+            return;
+        }
+        Path temporaryFile = null;
+        try {
+            Files.createDirectories(file.getParent());
+            temporaryFile =
+                    Files.createTempFile(file.getParent(), file.getFileName().toString(), ".tmp");
+            try (DataOutputStream out =
+                    new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile)))) {
+                write(out);
+            }
+            Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            saved = true;
+            modified = false;
+        } catch (IOException e) {
+            deleteQuietly(temporaryFile);
+            deleteQuietly(file);
+            throw new SymlyExecutionException(
+                    "Failed to save the link manifest %s: %s".formatted(file, e.getMessage()), e);
+        }
+    }
+
+    private void write(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(entries.size());
+        for (ManifestEntry entry : entries.values()) {
+            out.writeUTF(entry.source().toString());
+            out.writeUTF(entry.target().toString());
+            out.writeUTF(entry.layer().toString());
+            out.writeLong(entry.creationTime().toEpochMilli());
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Nothing more can be done
+        }
+    }
+
+    /**
+     * A link created by symly.
+     *
+     * @param source the source of the link
+     * @param target the target of the link
+     * @param layer the repository containing the target of the link
+     * @param creationTime the time at which the link was created, or last updated
+     */
+    record ManifestEntry(Path source, Path target, Path layer, Instant creationTime) {}
+}
@@ -2,8 +2,6 @@ package org.symly.links;
 
 import java.nio.file.Path;
 import org.symly.Result;
-import org.symly.files.FileSystemReader;
-import org.symly.files.FileSystemWriter;
 
 public record NoOpAction(Link link) implements Action {
 
@@ -13,7 +11,7 @@ public record NoOpAction(Link link) implements Action {
     }
 
     @Override
-    public Result<Void, Code> apply(FileSystemReader fsReader, FileSystemWriter fsWriter) {
+    public Result<Void, Code> apply(ActionContext context) {
         return Result.success();
     }
 }
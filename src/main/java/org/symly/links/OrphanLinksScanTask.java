@@ -0,0 +1,90 @@
+package org.symly.links;
+
+import java.io.Serial;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import org.symly.files.FileSystemReader;
+import org.symly.files.WalkSegments;
+import org.symly.repositories.Repositories;
+
+/**
+ * Scans the orphan links of a main directory on a {@link java.util.concurrent.ForkJoinPool}.
+ * <p>Sub-directories are scanned by forked tasks as long as the pool has idle workers, and are scanned inline
+ * otherwise. The results of the forked tasks are joined back in walk order so that the orphan links are returned in
+ * {@link FileSystemReader#WALK_ORDER}, as a sequential scan would return them.</p>
+ */
+class OrphanLinksScanTask extends RecursiveTask<List<Link>> {
+
+    /**
+     * The number of tasks waiting in the queue of the current worker above which sub-directories are not forked
+     * anymore.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final int SURPLUS_QUEUED_TASKS_THRESHOLD = 2;
+
+    private final FileSystemReader fsReader;
+    private final Repositories repositories;
+    private final Predicate<Path> repositoriesDirectories;
+    private final OrphanLookup orphanLookup;
+    private final Path start;
+
+    /**
+     * The number of levels of the content of the parent directory of {@link #start} which should be walked, or
+     * {@code -1} if {@link #start} is the main directory.
+     */
+    private final int parentRemainingOrphanDepthLookup;
+
+    OrphanLinksScanTask(
+            FileSystemReader fsReader,
+            Repositories repositories,
+            Predicate<Path> repositoriesDirectories,
+            OrphanLookup orphanLookup,
+            Path start,
+            int parentRemainingOrphanDepthLookup) {
+        this.fsReader = fsReader;
+        this.repositories = repositories;
+        this.repositoriesDirectories = repositoriesDirectories;
+        this.orphanLookup = orphanLookup;
+        this.start = start;
+        this.parentRemainingOrphanDepthLookup = parentRemainingOrphanDepthLookup;
+    }
+
+    @Override
+    protected List<Link> compute() {
+        WalkSegments<Link> segments = new WalkSegments<>();
+        Path parent = parentRemainingOrphanDepthLookup >= 0 ? start.getParent() : null;
+        OrphanLinksScanner scanner =
+                new OrphanLinksScanner(
+                        fsReader,
+                        repositories,
+                        repositoriesDirectories,
+                        orphanLookup,
+                        parent,
+                        parentRemainingOrphanDepthLookup) {
+                    @Override
+                    boolean scanSeparately(Path dir, int parentRemainingOrphanDepthLookup) {
+                        if (dir.equals(start) || getSurplusQueuedTaskCount() > SURPLUS_QUEUED_TASKS_THRESHOLD) {
+                            return false;
+                        }
+                        segments.add(new OrphanLinksScanTask(
+                                        fsReader,
+                                        repositories,
+                                        repositoriesDirectories,
+                                        orphanLookup,
+                                        dir,
+                                        parentRemainingOrphanDepthLookup)
+                                .fork());
+                        return true;
+                    }
+                };
+        try (Stream<Link> orphanLinks = fsReader.walkSorted(start, scanner)) {
+            orphanLinks.forEach(segments);
+        }
+        return segments.join();
+    }
+}
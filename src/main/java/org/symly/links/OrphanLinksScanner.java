@@ -0,0 +1,152 @@
+package org.symly.links;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.function.Predicate;
+import org.symly.cli.SymlyExecutionException;
+import org.symly.files.FileSystemReader;
+import org.symly.files.SortedFileVisitor;
+import org.symly.repositories.Repositories;
+
+/**
+ * Scanner of the orphan links of a main directory, walked by
+ * {@link FileSystemReader#walkSorted(Path, SortedFileVisitor)}.
+ * <p>Every directory of the main directory which also exists in the repositories is walked into. Other directories
+ * are walked into as long as they are at most {@link OrphanLookup#maxDepth()} levels below such a directory, unless
+ * the depth is overridden for one of the directories leading to them. Any symbolic link pointing to one of the
+ * repositories is then a candidate orphan link.</p>
+ * <p>Entries excluded by the {@link OrphanLookup} are skipped along with their content, which is never listed.</p>
+ */
+class OrphanLinksScanner implements SortedFileVisitor<Link> {
+
+    private final FileSystemReader fsReader;
+    private final Repositories repositories;
+    private final Predicate<Path> repositoriesDirectories;
+    private final OrphanLookup orphanLookup;
+
+    /**
+     * The directories leading to the current entry, the innermost directory being the first element.
+     */
+    private final Deque<ScannedDirectory> directories = new ArrayDeque<>();
+
+    /**
+     * @param repositoriesDirectories the directories of the main directory which also exist in the repositories
+     */
+    OrphanLinksScanner(
+            FileSystemReader fsReader,
+            Repositories repositories,
+            Predicate<Path> repositoriesDirectories,
+            OrphanLookup orphanLookup) {
+        this(fsReader, repositories, repositoriesDirectories, orphanLookup, null, 0);
+    }
+
+    /**
+     * @param repositoriesDirectories the directories of the main directory which also exist in the repositories
+     * @param parent the parent directory of the walk's starting point, or {@code null} if the walk starts at the main
+     *     directory
+     * @param parentRemainingOrphanDepthLookup the number of levels of the content of {@code parent} which should be
+     *     walked
+     */
+    OrphanLinksScanner(
+            FileSystemReader fsReader,
+            Repositories repositories,
+            Predicate<Path> repositoriesDirectories,
+            OrphanLookup orphanLookup,
+            Path parent,
+            int parentRemainingOrphanDepthLookup) {
+        this.fsReader = fsReader;
+        this.repositories = repositories;
+        this.repositoriesDirectories = repositoriesDirectories;
+        this.orphanLookup = orphanLookup;
+        if (parent != null) {
+            directories.push(new ScannedDirectory(parent, parentRemainingOrphanDepthLookup));
+        }
+    }
+
+    /**
+     * Allows to scan the sub-tree of a directory separately from the current walk. The sub-tree is then skipped by
+     * this scanner.
+     *
+     * @param dir the directory about to be walked into
+     * @param parentRemainingOrphanDepthLookup the number of levels of the content of the parent directory of
+     *     {@code dir} which should be walked
+     * @return {@code true} if the sub-tree of {@code dir} is scanned separately
+     */
+    boolean scanSeparately(Path dir, int parentRemainingOrphanDepthLookup) {
+        return false;
+    }
+
+    @Override
+    public Visit<Link> visit(Path path, BasicFileAttributes attrs) {
+        while (!directories.isEmpty() && !directories.element().path().equals(path.getParent())) {
+            directories.pop();
+        }
+        if (!directories.isEmpty() && orphanLookup.isExcluded(path)) {
+            return Visit.skip();
+        }
+        Integer maxDepthOverride = attrs.isRegularFile() ? null : orphanLookup.maxDepthOverride(path);
+        if (repositoriesDirectories.test(path)) {
+            Link orphanLink = directories.isEmpty() ? null : orphanLink(path, attrs);
+            int remainingOrphanDepthLookup = maxDepthOverride != null ? maxDepthOverride : orphanLookup.maxDepth();
+            return visitDirectory(path, attrs, remainingOrphanDepthLookup, orphanLink);
+        }
+        if (directories.isEmpty()) {
+            return Visit.skip();
+        }
+        int remainingOrphanDepthLookup = maxDepthOverride != null
+                ? maxDepthOverride
+                : directories.element().remainingOrphanDepthLookup() - 1;
+        if (remainingOrphanDepthLookup > 0 && isDirectoryReadable(path, attrs)) {
+            return visitDirectory(path, attrs, remainingOrphanDepthLookup, null);
+        }
+        return Visit.of(orphanLink(path, attrs));
+    }
+
+    private Visit<Link> visitDirectory(
+            Path dir, BasicFileAttributes attrs, int remainingOrphanDepthLookup, Link orphanLink) {
+        if (!isDirectoryReadable(dir, attrs)) {
+            return Visit.of(orphanLink);
+        }
+        if (!directories.isEmpty() && scanSeparately(dir, directories.element().remainingOrphanDepthLookup())) {
+            return Visit.skip();
+        }
+        directories.push(new ScannedDirectory(dir, remainingOrphanDepthLookup));
+        return Visit.withContent(orphanLink);
+    }
+
+    private boolean isDirectoryReadable(Path path, BasicFileAttributes attrs) {
+        // Only symbolic links need to be followed to know whether they point to a directory
+        boolean isDirectory = attrs.isDirectory() || (attrs.isSymbolicLink() && fsReader.isDirectory(path));
+        return isDirectory && fsReader.isReadable(path);
+    }
+
+    private Link orphanLink(Path path, BasicFileAttributes attrs) {
+        if (!attrs.isSymbolicLink()) {
+            return null;
+        }
+        Path target;
+        try {
+            target = fsReader.readSymbolicLink(path);
+        } catch (SymlyExecutionException e) {
+            if (!fsReader.isSymbolicLink(path)) {
+                // Replaced or deleted since its directory was listed, for example by a link created meanwhile
+                return null;
+            }
+            throw e;
+        }
+        if (!repositories.containsPath(target)) {
+            return null;
+        }
+        return new Link(path, target);
+    }
+
+    /**
+     * A directory being walked.
+     *
+     * @param path the path of the directory
+     * @param remainingOrphanDepthLookup the number of levels of its content which should be walked
+     */
+    private record ScannedDirectory(Path path, int remainingOrphanDepthLookup) {}
+}
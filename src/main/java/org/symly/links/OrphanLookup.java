@@ -0,0 +1,101 @@
+package org.symly.links;
+
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+import org.symly.repositories.MainDirectory;
+
+/**
+ * The rules of the lookup for orphan links in a {@link MainDirectory}.
+ * <p>The content of every directory of the main directory which also exists in the repositories is looked up to
+ * {@link #maxDepth()} levels below it. This depth can be overridden for specific directories, whether they exist in
+ * the repositories or not. Sub-trees can also be excluded from the lookup, in which case they are never listed.</p>
+ * <p>Exclusions are globs, as supported by {@link java.nio.file.FileSystem#getPathMatcher(String)}, and depth
+ * overrides are directories, both relative to the main directory.</p>
+ */
+public class OrphanLookup {
+
+    private final MainDirectory mainDirectory;
+    private final int maxDepth;
+    private final List<String> exclusions;
+    private final Map<Path, Integer> maxDepthOverrides;
+    private final List<PathMatcher> exclusionMatchers;
+
+    private OrphanLookup(
+            MainDirectory mainDirectory, int maxDepth, List<String> exclusions, Map<Path, Integer> maxDepthOverrides) {
+        this.mainDirectory = Objects.requireNonNull(mainDirectory);
+        this.maxDepth = maxDepth;
+        this.exclusions = List.copyOf(exclusions);
+        this.maxDepthOverrides = new TreeMap<>(maxDepthOverrides);
+        this.exclusionMatchers = exclusions.stream()
+                .map(glob -> FileSystems.getDefault().getPathMatcher("glob:" + glob))
+                .toList();
+    }
+
+    public static OrphanLookup of(MainDirectory mainDirectory, int maxDepth) {
+        return of(mainDirectory, maxDepth, List.of(), Map.of());
+    }
+
+    /**
+     * @param mainDirectory the main directory in which orphan links are looked up
+     * @param maxDepth the default maximum depth of the lookup
+     * @param exclusions the globs of the paths, relative to {@code mainDirectory}, which should not be looked up
+     * @param maxDepthOverrides the maximum depth of the lookup for specific directories, relative to
+     *     {@code mainDirectory}
+     * @return the rules of the lookup
+     */
+    public static OrphanLookup of(
+            MainDirectory mainDirectory, int maxDepth, List<String> exclusions, Map<Path, Integer> maxDepthOverrides) {
+        return new OrphanLookup(mainDirectory, maxDepth, exclusions, maxDepthOverrides);
+    }
+
+    public int maxDepth() {
+        return maxDepth;
+    }
+
+    /**
+     * Returns {@code true} if the given entry of the main directory, along with its content, should not be looked up.
+     *
+     * @param path the absolute path of an entry of the main directory
+     * @return {@code true} if the entry is excluded from the lookup
+     */
+    boolean isExcluded(Path path) {
+        if (exclusionMatchers.isEmpty()) {
+            return false;
+        }
+        Path name = mainDirectory.relativize(path);
+        return exclusionMatchers.stream().anyMatch(matcher -> matcher.matches(name));
+    }
+
+    /**
+     * Returns the maximum depth of the lookup overriding the default one for the given directory, if any.
+     *
+     * @param dir the absolute path of a directory of the main directory
+     * @return the maximum depth of the lookup in {@code dir}, or {@code null} if it is not overridden
+     */
+    Integer maxDepthOverride(Path dir) {
+        if (maxDepthOverrides.isEmpty()) {
+            return null;
+        }
+        return maxDepthOverrides.get(mainDirectory.relativize(dir));
+    }
+
+    @Override
+    public String toString() {
+        if (exclusions.isEmpty() && maxDepthOverrides.isEmpty()) {
+            return String.valueOf(maxDepth);
+        }
+        return "%d, excluding %s, overriding %s"
+                .formatted(
+                        maxDepth,
+                        exclusions,
+                        maxDepthOverrides.entrySet().stream()
+                                .map(override -> override.getKey() + ":" + override.getValue())
+                                .collect(Collectors.joining(", ", "[", "]")));
+    }
+}
@@ -16,6 +16,11 @@ import org.symly.files.FileSystemReader;
  *     <li>{@link #DIRECTORY_PROPERTY}</li>
  *     <li>{@link #REPOSITORIES_PROPERTY}</li>
  *     <li>{@link #ORPHANS_MAX_DEPTH_PROPERTY}</li>
+ *     <li>{@link #ORPHANS_MAX_DEPTH_OVERRIDES_PROPERTY}</li>
+ *     <li>{@link #ORPHANS_EXCLUDE_PROPERTY}</li>
+ *     <li>{@link #PARALLEL_PROPERTY}</li>
+ *     <li>{@link #CACHE_PROPERTY}</li>
+ *     <li>{@link #MANIFEST_PROPERTY}</li>
  * </ul>
  * <p>Paths expressed in this file can be:</p>
  * <ul>
@@ -45,6 +50,34 @@ public class ContextConfig {
 
     public static final String ORPHAN_MAX_DEPTH_DEFAULT_VALUE = "2";
 
+    /**
+     * The maximum depth for orphan-links lookup in specific directories, as a comma separated list of
+     * {@code <directory>:<max-depth>} where directories are relative to the main directory.
+     * For example {@code .config:4, .local/share:1}
+     */
+    private static final String ORPHANS_MAX_DEPTH_OVERRIDES_PROPERTY = "orphans.max-depth.overrides";
+
+    /**
+     * The globs of the paths, relative to the main directory, excluded from the orphan-links lookup as a comma
+     * separated list. For example {@code .cache, .local/share/Trash}
+     */
+    private static final String ORPHANS_EXCLUDE_PROPERTY = "orphans.exclude";
+
+    /**
+     * Whether the repositories are scanned concurrently. Disabled by default.
+     */
+    private static final String PARALLEL_PROPERTY = "parallel";
+
+    /**
+     * Whether the scans of the repositories are cached between runs. Disabled by default.
+     */
+    private static final String CACHE_PROPERTY = "cache";
+
+    /**
+     * Whether a manifest of the links created is kept, in which orphan links are looked up. Disabled by default.
+     */
+    private static final String MANIFEST_PROPERTY = "manifest";
+
     /**
      * The {@link Path} to consider as the parent directory of relative paths found in Symly configuration.
      */
@@ -79,6 +112,58 @@ public class ContextConfig {
         return Integer.parseInt(properties.get(ORPHANS_MAX_DEPTH_PROPERTY));
     }
 
+    public Map<Path, Integer> orphanMaxDepthOverrides() {
+        Map<Path, Integer> overrides = new LinkedHashMap<>();
+        for (String override : list(ORPHANS_MAX_DEPTH_OVERRIDES_PROPERTY)) {
+            int separator = override.lastIndexOf(':');
+            if (separator < 0) {
+                throw invalidOrphanMaxDepthOverride(override, null);
+            }
+            try {
+                overrides.put(
+                        Path.of(override.substring(0, separator).trim()),
+                        Integer.parseInt(override.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                throw invalidOrphanMaxDepthOverride(override, e);
+            }
+        }
+        return overrides;
+    }
+
+    private static SymlyExecutionException invalidOrphanMaxDepthOverride(String override, Exception cause) {
+        return new SymlyExecutionException(
+                "Invalid %s entry '%s', expected <directory>:<max-depth>"
+                        .formatted(ORPHANS_MAX_DEPTH_OVERRIDES_PROPERTY, override),
+                cause);
+    }
+
+    public List<String> orphanExclusions() {
+        return list(ORPHANS_EXCLUDE_PROPERTY);
+    }
+
+    private List<String> list(String property) {
+        String value = properties.get(property);
+        if (value == null) {
+            return List.of();
+        }
+        return Arrays.stream(value.split(","))
+                .map(String::trim)
+                .filter(entry -> !entry.isEmpty())
+                .toList();
+    }
+
+    public boolean parallel() {
+        return Boolean.parseBoolean(properties.get(PARALLEL_PROPERTY));
+    }
+
+    public boolean cache() {
+        return Boolean.parseBoolean(properties.get(CACHE_PROPERTY));
+    }
+
+    public boolean manifest() {
+        return Boolean.parseBoolean(properties.get(MANIFEST_PROPERTY));
+    }
+
     public static ContextConfig read(FileSystemReader fsReader) {
         Path config = PathAdapter.convert(SYMLY_CONFIG);
         return read(fsReader, config);
@@ -104,6 +189,11 @@ public class ContextConfig {
         defaults.put(DIRECTORY_PROPERTY, null);
         defaults.put(REPOSITORIES_PROPERTY, null);
         defaults.put(ORPHANS_MAX_DEPTH_PROPERTY, ORPHAN_MAX_DEPTH_DEFAULT_VALUE);
+        defaults.put(ORPHANS_MAX_DEPTH_OVERRIDES_PROPERTY, null);
+        defaults.put(ORPHANS_EXCLUDE_PROPERTY, null);
+        defaults.put(PARALLEL_PROPERTY, Boolean.FALSE.toString());
+        defaults.put(CACHE_PROPERTY, Boolean.FALSE.toString());
+        defaults.put(MANIFEST_PROPERTY, Boolean.FALSE.toString());
         return defaults;
     }
 }
@@ -23,10 +23,11 @@ class IgnoreList {
     private static final Pattern COMMENT = Pattern.compile("#.*$");
     private static final Pattern ASTERISK_PATTERN = Pattern.compile("\\*");
 
-    private static final Collection<UnaryOperator<String>> PATTERN_CONVERSIONS = List.of(
+    private static final Collection<UnaryOperator<String>> GLOB_CONVERSIONS = List.of(
             // trimming leading/trailing whitespaces
-            new RegexConversion("^\\s+", ""),
-            new RegexConversion("\\s+$", ""),
+            new RegexConversion("^\\s+", ""), new RegexConversion("\\s+$", ""));
+
+    private static final Collection<UnaryOperator<String>> PATTERN_CONVERSIONS = List.of(
             // wildcard support
             IgnoreList::processWildcards);
 
@@ -50,18 +51,28 @@ class IgnoreList {
 
     private IgnoreList() {}
 
-    static Collection<IgnoreRule> readTopLevel(FileSystemReader fsReader, Path path) {
-        return readIt(path, fsReader, TOP_LEVEL_DEFAULT_IGNORE_RULES);
+    /**
+     * Reads the ignore rules of the root directory of a repository.
+     *
+     * @param present whether the directory contains a {@code .symlyignore} file, as known from its listing
+     */
+    static Collection<IgnoreRule> readTopLevel(FileSystemReader fsReader, Path path, boolean present) {
+        return readIt(path, fsReader, present, TOP_LEVEL_DEFAULT_IGNORE_RULES);
     }
 
-    static Collection<IgnoreRule> read(FileSystemReader fsReader, Path path) {
-        return readIt(path, fsReader, Collections.emptyList());
+    /**
+     * Reads the ignore rules of a directory of a repository.
+     *
+     * @param present whether the directory contains a {@code .symlyignore} file, as known from its listing
+     */
+    static Collection<IgnoreRule> read(FileSystemReader fsReader, Path path, boolean present) {
+        return readIt(path, fsReader, present, Collections.emptyList());
     }
 
-    private static List<IgnoreRule> readIt(Path path, FileSystemReader fsReader, List<IgnoreRule> defaultValue) {
-        Path ignoreList = path.resolve(SYMLY_IGNORE);
-        if (fsReader.exists(ignoreList)) {
-            try (Stream<String> lines = fsReader.lines(ignoreList)) {
+    private static List<IgnoreRule> readIt(
+            Path path, FileSystemReader fsReader, boolean present, List<IgnoreRule> defaultValue) {
+        if (present) {
+            try (Stream<String> lines = fsReader.lines(path.resolve(SYMLY_IGNORE))) {
                 return parse(lines);
             } catch (IOException e) {
                 throw new SymlyExecutionException("Unable to analyze repository structure %s".formatted(path), e);
@@ -78,10 +89,16 @@ class IgnoreList {
     }
 
     private static IgnoreRule toPattern(String line) {
-        for (UnaryOperator<String> conversion : PATTERN_CONVERSIONS) {
-            line = conversion.apply(line);
+        String glob = apply(GLOB_CONVERSIONS, line);
+        String regex = apply(PATTERN_CONVERSIONS, glob);
+        return new IgnoreRule(Pattern.compile("^" + regex + "$"), glob);
+    }
+
+    private static String apply(Collection<UnaryOperator<String>> conversions, String str) {
+        for (UnaryOperator<String> conversion : conversions) {
+            str = conversion.apply(str);
         }
-        return new IgnoreRule(Pattern.compile("^" + line + "$"));
+        return str;
     }
 }
 
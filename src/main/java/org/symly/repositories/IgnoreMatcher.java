@@ -0,0 +1,140 @@
+package org.symly.repositories;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * The compiled form of the {@link IgnoreRule} applicable to the content of a directory.
+ * <p>Rules are dispatched by shape so that most names are matched without running any regular expression:</p>
+ * <ul>
+ *     <li>Static rules ({@code .DS_Store}) are looked up in a hash set.</li>
+ *     <li>Prefix rules ({@code log-*}) and suffix rules ({@code *.log}) are looked up in character tries.</li>
+ *     <li>Any other pattern is combined into a single regular expression.</li>
+ * </ul>
+ * <p>Rules inherited from parent directories are not copied: a matcher delegates to its parent's matcher for
+ * names it does not match itself.</p>
+ */
+class IgnoreMatcher {
+
+    /**
+     * The matcher ignoring nothing.
+     */
+    static final IgnoreMatcher NONE = new IgnoreMatcher(null);
+
+    private final IgnoreMatcher parent;
+    private final Set<String> names = new HashSet<>();
+    private final CharTrie prefixes = new CharTrie();
+    private final CharTrie suffixes = new CharTrie();
+    private final Pattern patterns;
+    private boolean matchesAll = false;
+
+    private IgnoreMatcher(IgnoreMatcher parent) {
+        this.parent = parent;
+        this.patterns = null;
+    }
+
+    private IgnoreMatcher(IgnoreMatcher parent, Collection<IgnoreRule> rules) {
+        this.parent = parent;
+        List<IgnoreRule> otherRules = new ArrayList<>();
+        for (IgnoreRule rule : rules) {
+            if (!compile(rule)) {
+                otherRules.add(rule);
+            }
+        }
+        this.patterns = combine(otherRules);
+    }
+
+    private boolean compile(IgnoreRule rule) {
+        String glob = rule.glob();
+        if (glob == null) {
+            return false;
+        }
+        int wildcards = (int) glob.chars().filter(c -> c == '*').count();
+        if (wildcards == 0) {
+            names.add(glob);
+        } else if (glob.equals("*")) {
+            matchesAll = true;
+        } else if (wildcards == 1 && glob.endsWith("*")) {
+            prefixes.add(glob.substring(0, glob.length() - 1), false);
+        } else if (wildcards == 1 && glob.startsWith("*")) {
+            suffixes.add(glob.substring(1), true);
+        } else {
+            return false;
+        }
+        return true;
+    }
+
+    private static Pattern combine(Collection<IgnoreRule> rules) {
+        if (rules.isEmpty()) {
+            return null;
+        }
+        return Pattern.compile(rules.stream().map(rule -> "(?:" + rule + ")").collect(Collectors.joining("|")));
+    }
+
+    /**
+     * Returns a matcher applying the given rules on top of the rules of this matcher.
+     *
+     * @param rules the additional rules
+     * @return a matcher applying the given rules on top of the rules of this matcher
+     */
+    IgnoreMatcher with(Collection<IgnoreRule> rules) {
+        if (rules.isEmpty()) {
+            return this;
+        }
+        return new IgnoreMatcher(this, rules);
+    }
+
+    boolean matches(String name) {
+        for (IgnoreMatcher matcher = this; matcher != null; matcher = matcher.parent) {
+            if (matcher.matchesOwnRules(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean matchesOwnRules(String name) {
+        return matchesAll
+                || names.contains(name)
+                || prefixes.containsPrefixOf(name, false)
+                || suffixes.containsPrefixOf(name, true)
+                || (patterns != null && patterns.matcher(name).matches());
+    }
+
+    /**
+     * A character trie answering whether one of its words is a prefix (or a suffix when reading words backward) of a
+     * given string in a time proportional to the length of the string.
+     */
+    private static class CharTrie {
+
+        private final Map<Character, CharTrie> children = new HashMap<>();
+        private boolean word = false;
+
+        void add(String value, boolean backward) {
+            CharTrie node = this;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(backward ? value.length() - 1 - i : i);
+                node = node.children.computeIfAbsent(c, key -> new CharTrie());
+            }
+            node.word = true;
+        }
+
+        boolean containsPrefixOf(String value, boolean backward) {
+            CharTrie node = this;
+            for (int i = 0; i < value.length() && !node.word; i++) {
+                node = node.children.get(value.charAt(backward ? value.length() - 1 - i : i));
+                if (node == null) {
+                    return false;
+                }
+            }
+            return node.word;
+        }
+    }
+}
@@ -10,14 +10,29 @@ class IgnoreRule {
 
     private final Pattern pattern;
 
+    /**
+     * The wildcard expression this rule was parsed from, or {@code null} if the rule was directly created from a
+     * regular expression.
+     */
+    private final String glob;
+
     IgnoreRule(Pattern pattern) {
+        this(pattern, null);
+    }
+
+    IgnoreRule(Pattern pattern, String glob) {
         this.pattern = Objects.requireNonNull(pattern);
+        this.glob = glob;
     }
 
     public boolean match(String name) {
         return pattern.matcher(name).matches();
     }
 
+    String glob() {
+        return glob;
+    }
+
     @Override
     public int hashCode() {
         return pattern.pattern().hashCode();
@@ -0,0 +1,57 @@
+package org.symly.repositories;
+
+import static org.symly.repositories.RepositoryEntry.Type.DIRECTORY;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import org.symly.repositories.MergedLayers.LayeredEntry;
+
+/**
+ * Selects which {@link RepositoryEntry} should be linked among the entries of all the layers of {@link Repositories}.
+ * <p>Entries must be submitted in the order returned by {@link MergedLayers}. An entry is then shadowed either by the
+ * previously linked entry if it has the same name, or by a directory link leading to it and belonging to a layer of
+ * higher or equal priority. Only the directory links leading to the current entry are retained, so that checking
+ * whether an entry is shadowed takes a time proportional to its depth, and not to the number of entries already
+ * linked.</p>
+ */
+class LinkedEntries {
+
+    /**
+     * The directory links leading to the current entry, the innermost directory being the first element.
+     */
+    private final Deque<LayeredEntry> directoryLinks = new ArrayDeque<>();
+
+    private Path lastLinkedName;
+
+    /**
+     * Links the given entry unless it is shadowed by an already linked one or it is a directory which should not be
+     * linked as a whole.
+     *
+     * @param layeredEntry the next entry
+     * @return {@code true} if the entry is linked
+     */
+    boolean link(LayeredEntry layeredEntry) {
+        RepositoryEntry entry = layeredEntry.entry();
+        Path name = entry.name();
+        while (!directoryLinks.isEmpty()
+                && !name.startsWith(directoryLinks.element().entry().name())) {
+            directoryLinks.pop();
+        }
+        if (name.equals(lastLinkedName) || isInLinkedDirectory(layeredEntry)) {
+            return false;
+        }
+        if (entry.type() == DIRECTORY) {
+            if (!entry.marked()) {
+                return false;
+            }
+            directoryLinks.push(layeredEntry);
+        }
+        lastLinkedName = name;
+        return true;
+    }
+
+    private boolean isInLinkedDirectory(LayeredEntry layeredEntry) {
+        return directoryLinks.stream().anyMatch(link -> link.priority() <= layeredEntry.priority());
+    }
+}
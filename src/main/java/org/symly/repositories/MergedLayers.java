@@ -0,0 +1,65 @@
+package org.symly.repositories;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+import org.symly.files.FileSystemReader;
+
+/**
+ * Lazily merges the entries of the layers of {@link Repositories}.
+ * <p>Each layer provides its entries in {@link FileSystemReader#WALK_ORDER}, and entries are returned in that same
+ * order, entries having the same name being returned by decreasing layer priority. Only the next entry of each layer
+ * is held in memory.</p>
+ */
+class MergedLayers implements Iterator<MergedLayers.LayeredEntry> {
+
+    private static final Comparator<LayeredEntry> ORDER = Comparator.comparing(
+                    (LayeredEntry layeredEntry) -> layeredEntry.entry().name(), FileSystemReader.WALK_ORDER)
+            .thenComparingInt(LayeredEntry::priority);
+
+    private final List<Iterator<RepositoryEntry>> layers;
+
+    private final PriorityQueue<LayeredEntry> nextEntries = new PriorityQueue<>(ORDER);
+
+    /**
+     * @param layers the entries of each layer, ordered by decreasing layer priority
+     */
+    MergedLayers(List<Iterator<RepositoryEntry>> layers) {
+        this.layers = layers;
+        for (int priority = 0; priority < layers.size(); priority++) {
+            advance(priority);
+        }
+    }
+
+    private void advance(int priority) {
+        Iterator<RepositoryEntry> layer = layers.get(priority);
+        if (layer.hasNext()) {
+            nextEntries.add(new LayeredEntry(layer.next(), priority));
+        }
+    }
+
+    @Override
+    public boolean hasNext() {
+        return !nextEntries.isEmpty();
+    }
+
+    @Override
+    public LayeredEntry next() {
+        LayeredEntry next = nextEntries.poll();
+        if (next == null) {
+            throw new NoSuchElementException();
+        }
+        advance(next.priority());
+        return next;
+    }
+
+    /**
+     * A {@link RepositoryEntry} along with the priority of the layer it belongs to.
+     *
+     * @param entry the repository entry
+     * @param priority the priority of the layer, {@code 0} being the highest priority
+     */
+    record LayeredEntry(RepositoryEntry entry, int priority) {}
+}
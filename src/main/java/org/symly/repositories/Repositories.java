@@ -2,16 +2,20 @@ package org.symly.repositories;
 
 import static java.util.Spliterator.ORDERED;
 import static java.util.Spliterators.spliteratorUnknownSize;
-import static org.symly.links.Configuration.symlinkMarker;
-import static org.symly.repositories.RepositoryEntry.Type.DIRECTORY;
 
 import java.nio.file.Path;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
+import org.symly.files.DirectoryCache;
 import org.symly.files.FileSystemReader;
+import org.symly.files.IoPool;
 import org.symly.links.Link;
+import org.symly.repositories.MergedLayers.LayeredEntry;
+import org.symly.stats.Stats;
+import org.symly.stats.Stats.Phase;
 
 /**
  * An ordered collection of {@link Repository} which files will be linked into the {@link MainDirectory}.
@@ -22,15 +26,44 @@ public class Repositories {
 
     private final Deque<Repository> layers;
 
-    public Repositories(FileSystemReader fsReader, Deque<Repository> layers) {
-        this.fsReader = Objects.requireNonNull(fsReader);
+    /**
+     * Whether the layers are scanned concurrently or one after the other.
+     */
+    private final boolean parallel;
+
+    /**
+     * The cache through which the layers are scanned, or {@code null} if they are always scanned from the file
+     * system.
+     */
+    private final DirectoryCache cache;
+
+    /**
+     * The index of the layers, by their paths.
+     */
+    private final RepositoryIndex index;
+
+    public Repositories(FileSystemReader fsReader, Deque<Repository> layers, boolean parallel, DirectoryCache cache) {
+        this.fsReader = cache == null ? Objects.requireNonNull(fsReader) : cache.reader(fsReader);
         this.layers = Objects.requireNonNull(layers);
+        this.parallel = parallel;
+        this.cache = cache;
+        this.index = new RepositoryIndex(layersByPriority().toList());
     }
 
     public Collection<Repository> repositories() {
         return List.copyOf(layers);
     }
 
+    /**
+     * Returns whether the repositories are scanned concurrently, in which case the links to them are also created
+     * concurrently.
+     *
+     * @return whether the repositories are scanned concurrently
+     */
+    public boolean parallel() {
+        return parallel;
+    }
+
     /**
      * Returns {@code true} if the absolute path given is contained in one of the repositories.
      *
@@ -38,57 +71,57 @@ public class Repositories {
      * @return {@code true} if the absolute path given is contained in one of the repositories
      */
     public boolean containsPath(Path path) {
-        return layers.stream().anyMatch(r -> r.containsPath(path.toAbsolutePath()));
+        return index.lookup(absolute(path)) != null;
     }
 
     /**
-     * Returns a list of {@link Link} to be created in {@code mainDirectory}. The links targets points to files
-     * contained in the repositories.
+     * Returns the repository containing the absolute path given. If several repositories contain it, the one with the
+     * highest priority is returned.
      *
-     * @return a list of {@link Link} to be created in {@code mainDirectory}.
+     * @param path the path to look up
+     * @return the repository containing the path, if any
      */
-    public List<Link> links(MainDirectory mainDirectory) {
-        try (Stream<RepositoryEntry> elements = entries(fsReader)) {
-            return elements.map(element -> toLink(element, mainDirectory)).toList();
-        }
+    public Optional<Repository> repository(Path path) {
+        return Optional.ofNullable(index.lookup(absolute(path)));
     }
 
-    private Stream<RepositoryEntry> entries(FileSystemReader fs) {
-        Set<Path> addedNames = new HashSet<>();
-        List<Path> addedDirs = new ArrayList<>();
-        List<RepositoryEntry> allEntries;
-        try (Stream<RepositoryEntry> stream = allEntries(fs)) {
-            allEntries = stream.toList();
-        }
-        Set<Path> allEntriesFullPaths =
-                allEntries.stream().map(RepositoryEntry::fullPath).collect(Collectors.toSet());
-        return allEntries.stream()
-                .<RepositoryEntry>mapMulti((entry, stream) -> {
-                    if (skipEntry(entry, addedNames, addedDirs, allEntriesFullPaths)) {
-                        return;
-                    }
-                    if (entry.type() == DIRECTORY) {
-                        addedDirs.add(entry.name());
-                    }
-                    addedNames.add(entry.name());
-                    stream.accept(entry);
-                })
-                .sorted(Comparator.comparing(RepositoryEntry::name));
-    }
-
-    private boolean skipEntry(
-            RepositoryEntry entry, Set<Path> addedNames, List<Path> addedDirs, Set<Path> allEntriesFullPaths) {
-        if (addedNames.contains(entry.name())) {
-            return true;
-        }
-        if (addedDirs.stream().anyMatch(dir -> entry.name().startsWith(dir))) {
-            return true;
-        }
-        return entry.type() == DIRECTORY && !allEntriesFullPaths.contains(symlinkMarker(entry.fullPath()));
+    private static Path absolute(Path path) {
+        return path.isAbsolute() ? path : path.toAbsolutePath();
+    }
+
+    /**
+     * Returns a scan of all the layers, from which the links to create, the names of the directories and the marked
+     * directories are derived. The layers are scanned once, when the first of them is requested.
+     *
+     * @return a scan of all the layers
+     */
+    public RepositoriesScan scan() {
+        return new RepositoriesScan(() -> allEntries(fsReader).iterator());
     }
 
-    private Link toLink(RepositoryEntry repositoryEntry, MainDirectory directory) {
-        return Link.of(directory.resolve(repositoryEntry.name()), repositoryEntry.fullPath());
+    /**
+     * Starts a scan of all the layers, accounting the time spent scanning them to
+     * {@link Phase#REPOSITORY_SCAN}.
+     *
+     * @param stats the statistics in which the scan is timed
+     * @return a scan of all the layers
+     */
+    public RepositoriesScan scan(Stats stats) {
+        return new RepositoriesScan(() ->
+                stats.timed(Phase.REPOSITORY_SCAN, () -> allEntries(fsReader)).iterator());
+    }
+
+    /**
+     * Returns the {@link Link} to be created in {@code mainDirectory}. The links targets points to files contained in
+     * the repositories.
+     * <p>The links are ordered by {@link FileSystemReader#WALK_ORDER} of their names, and are computed lazily as the
+     * returned stream is consumed.</p>
+     *
+     * @return the {@link Link} to be created in {@code mainDirectory}.
+     * @see RepositoriesScan#links(MainDirectory)
+     */
+    public Stream<Link> links(MainDirectory mainDirectory) {
+        return scan().links(mainDirectory);
     }
 
     /**
@@ -96,20 +129,40 @@ public class Repositories {
      * repositories.
      *
      * @return the list of directories present in the repositories.
+     * @see RepositoriesScan#directoriesNames()
      */
     public List<Path> allDirectoriesNames() {
-        try (Stream<RepositoryEntry> allElements = allEntries(fsReader)) {
-            return allElements
-                    .filter(e -> e.type() == DIRECTORY)
-                    .map(RepositoryEntry::name)
-                    .sorted()
-                    .distinct()
-                    .toList();
+        return List.copyOf(scan().directoriesNames());
+    }
+
+    /**
+     * Returns the entries of all the layers, merged by {@link MergedLayers}.
+     */
+    private Stream<LayeredEntry> allEntries(FileSystemReader fs) {
+        List<Iterator<RepositoryEntry>> entriesByPriority = parallel
+                ? parallelEntries(fs)
+                : layersByPriority().map(repo -> repo.entries(fs).iterator()).toList();
+        return StreamSupport.stream(spliteratorUnknownSize(new MergedLayers(entriesByPriority), ORDERED), false);
+    }
+
+    /**
+     * Saves the cache through which the layers are scanned, if any. To be called once the command using the
+     * repositories is done, whether the layers have been entirely scanned or not.
+     */
+    public void saveCache() {
+        if (cache != null) {
+            cache.save();
         }
     }
 
-    private Stream<RepositoryEntry> allEntries(FileSystemReader fs) {
-        return layersByPriority().flatMap(repo -> repo.entries(fs));
+    /**
+     * Scans all the layers concurrently. Each layer is fully scanned before being merged with the other ones.
+     */
+    private List<Iterator<RepositoryEntry>> parallelEntries(FileSystemReader fs) {
+        ForkJoinPool pool = IoPool.get();
+        List<ForkJoinTask<List<RepositoryEntry>>> tasks =
+                layersByPriority().map(repo -> pool.submit(repo.scanTask(fs))).toList();
+        return tasks.stream().map(task -> task.join().iterator()).toList();
     }
 
     private Stream<Repository> layersByPriority() {
@@ -123,6 +176,30 @@ public class Repositories {
      * @return the wrapped repositories
      */
     public static Repositories of(FileSystemReader fsReader, List<Repository> repositories) {
-        return new Repositories(fsReader, new ArrayDeque<>(repositories));
+        return of(fsReader, repositories, false);
+    }
+
+    /**
+     * Wraps an ordered list of {@link Repository} into a {@code Repositories} object.
+     * @param fsReader the file system reader
+     * @param repositories the ordered list of {@link Repository}. Ordered from the base layer first to the most specific one last
+     * @param parallel whether the repositories should be scanned concurrently
+     * @return the wrapped repositories
+     */
+    public static Repositories of(FileSystemReader fsReader, List<Repository> repositories, boolean parallel) {
+        return of(fsReader, repositories, parallel, null);
+    }
+
+    /**
+     * Wraps an ordered list of {@link Repository} into a {@code Repositories} object.
+     * @param fsReader the file system reader
+     * @param repositories the ordered list of {@link Repository}. Ordered from the base layer first to the most specific one last
+     * @param parallel whether the repositories should be scanned concurrently
+     * @param cache the cache through which the repositories should be scanned, or {@code null} for none
+     * @return the wrapped repositories
+     */
+    public static Repositories of(
+            FileSystemReader fsReader, List<Repository> repositories, boolean parallel, DirectoryCache cache) {
+        return new Repositories(fsReader, new ArrayDeque<>(repositories), parallel, cache);
     }
 }
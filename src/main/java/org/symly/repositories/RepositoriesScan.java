@@ -0,0 +1,191 @@
+package org.symly.repositories;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+import static org.symly.repositories.RepositoryEntry.Type.DIRECTORY;
+
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+import org.symly.files.FileSystemReader;
+import org.symly.links.Link;
+import org.symly.repositories.MergedLayers.LayeredEntry;
+
+/**
+ * The result of a single scan of all the layers of {@link Repositories}, from which the links to create, the names of
+ * the directories and the names of the directories marked to be linked as a whole are all derived.
+ * <p>The layers are only scanned once entries are needed, and as far as needed: links are produced lazily as the
+ * stream returned by {@link #links(MainDirectory)} is consumed, and the {@link #directoriesLookup()} only scans the
+ * layers up to the name it is looked up with, while requesting the directories names or the markers completes the
+ * scan. Links scanned ahead of their consumption are kept until they are consumed, so that when both the links and
+ * the directories lookup are consumed in {@link FileSystemReader#WALK_ORDER}, only the links between their respective
+ * positions are kept.</p>
+ * <p>A scan is meant to be consumed by a single thread.</p>
+ */
+public class RepositoriesScan {
+
+    private final Supplier<Iterator<LayeredEntry>> scanner;
+
+    private Iterator<LayeredEntry> entries;
+
+    private final LinkedEntries linkedEntries = new LinkedEntries();
+
+    /**
+     * The linked entries scanned but not consumed yet by {@link #links(MainDirectory)}.
+     */
+    private final Deque<RepositoryEntry> pendingLinks = new ArrayDeque<>();
+
+    private final Set<Path> directoriesNames = new LinkedHashSet<>();
+
+    private final Set<Path> markedDirectoriesNames = new LinkedHashSet<>();
+
+    /**
+     * The names of the directories scanned but not looked up yet by the {@link #directoriesLookup()}, or {@code null}
+     * if it has not been requested.
+     */
+    private Deque<Path> pendingDirectoriesNames;
+
+    private Path lastScannedName;
+
+    private boolean linksRequested = false;
+
+    /**
+     * @param scanner starts the scan of the layers, returning their merged entries
+     */
+    RepositoriesScan(Supplier<Iterator<LayeredEntry>> scanner) {
+        this.scanner = scanner;
+    }
+
+    /**
+     * Returns the {@link Link} to be created in {@code mainDirectory}, ordered by {@link FileSystemReader#WALK_ORDER}
+     * of their names. They can only be requested once per scan.
+     *
+     * @param mainDirectory the directory in which the links are to be created
+     * @return the links to be created in {@code mainDirectory}
+     */
+    public Stream<Link> links(MainDirectory mainDirectory) {
+        if (linksRequested) {
+            throw new IllegalStateException("The links of a repositories scan can only be requested once");
+        }
+        linksRequested = true;
+        Iterator<Link> links = new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                while (pendingLinks.isEmpty() && advance()) {
+                    // scans until the next linked entry
+                }
+                return !pendingLinks.isEmpty();
+            }
+
+            @Override
+            public Link next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                RepositoryEntry entry = pendingLinks.poll();
+                return Link.of(mainDirectory.resolve(entry.name()), entry.fullPath());
+            }
+        };
+        return StreamSupport.stream(spliteratorUnknownSize(links, ORDERED), false);
+    }
+
+    /**
+     * Returns the names (i.e. relative paths to the root of each repository) of the directories contained in any of
+     * the repositories, in {@link FileSystemReader#WALK_ORDER}.
+     *
+     * @return the names of the directories present in the repositories
+     */
+    public Set<Path> directoriesNames() {
+        if (pendingDirectoriesNames != null) {
+            throw new IllegalStateException(
+                    "The directories names of a repositories scan cannot be requested after its directories lookup");
+        }
+        complete();
+        return Collections.unmodifiableSet(directoriesNames);
+    }
+
+    /**
+     * Returns a lookup of the names of the directories contained in any of the repositories, which only scans the
+     * layers up to the name it is looked up with. Names must be looked up in {@link FileSystemReader#WALK_ORDER}, as a
+     * walk of the main directory visits them, so that the directories preceding the last looked up name are not kept.
+     * It can only be requested once per scan, and {@link #directoriesNames()} cannot be requested after it.
+     *
+     * @return whether a name is the name of a directory present in the repositories
+     */
+    public Predicate<Path> directoriesLookup() {
+        if (pendingDirectoriesNames != null) {
+            throw new IllegalStateException("The directories lookup of a repositories scan can only be requested once");
+        }
+        pendingDirectoriesNames = new ArrayDeque<>(directoriesNames);
+        directoriesNames.clear();
+        return name -> {
+            while ((lastScannedName == null || FileSystemReader.WALK_ORDER.compare(lastScannedName, name) < 0)
+                    && advance()) {
+                // scans up to the name
+            }
+            while (!pendingDirectoriesNames.isEmpty()
+                    && FileSystemReader.WALK_ORDER.compare(pendingDirectoriesNames.element(), name) < 0) {
+                // Not looked up anymore, as the following names are looked up in walk order
+                pendingDirectoriesNames.remove();
+            }
+            return name.equals(pendingDirectoriesNames.peek());
+        };
+    }
+
+    /**
+     * Returns the names of the directories containing a {@code .symlink} marker in any of the repositories, in
+     * {@link FileSystemReader#WALK_ORDER}.
+     *
+     * @return the names of the directories marked to be linked as a whole
+     */
+    public Set<Path> markedDirectoriesNames() {
+        complete();
+        return Collections.unmodifiableSet(markedDirectoriesNames);
+    }
+
+    private void complete() {
+        while (advance()) {
+            // scans all the remaining entries
+        }
+    }
+
+    /**
+     * Scans the next entry.
+     *
+     * @return {@code false} if all the entries have already been scanned
+     */
+    private boolean advance() {
+        if (entries == null) {
+            entries = scanner.get();
+        }
+        if (!entries.hasNext()) {
+            return false;
+        }
+        LayeredEntry layeredEntry = entries.next();
+        RepositoryEntry entry = layeredEntry.entry();
+        lastScannedName = entry.name();
+        if (entry.type() == DIRECTORY) {
+            if (pendingDirectoriesNames != null) {
+                pendingDirectoriesNames.add(entry.name());
+            } else {
+                directoriesNames.add(entry.name());
+            }
+            if (entry.marked()) {
+                markedDirectoriesNames.add(entry.name());
+            }
+        }
+        if (linkedEntries.link(layeredEntry)) {
+            pendingLinks.add(entry);
+        }
+        return true;
+    }
+}
@@ -10,8 +10,10 @@ import java.util.Objects;
  * Repository}'s root.
  * @param fullPath The full path of the entry, i.e. the {@link Repository}'s root Path + the {@link #name}.
  * @param type The type of the filesystem entry pointed by the {@link #fullPath}
+ * @param marked {@code true} if the entry is a directory containing a {@code .symlink} marker, i.e. a directory to be
+ * linked as a whole
  */
-public record RepositoryEntry(Path name, Path fullPath, Type type) {
+public record RepositoryEntry(Path name, Path fullPath, Type type, boolean marked) {
 
     public RepositoryEntry {
         Objects.requireNonNull(name);
@@ -25,8 +27,12 @@ public record RepositoryEntry(Path name, Path fullPath, Type type) {
     }
 
     static RepositoryEntry of(Path name, Path fullPath, Type type) {
+        return of(name, fullPath, type, false);
+    }
+
+    static RepositoryEntry of(Path name, Path fullPath, Type type, boolean marked) {
         Path normalizedFullPath = fullPath.toAbsolutePath().normalize();
         Path normalizedName = name.normalize();
-        return new RepositoryEntry(normalizedName, normalizedFullPath, type);
+        return new RepositoryEntry(normalizedName, normalizedFullPath, type, marked);
     }
 }
@@ -0,0 +1,64 @@
+package org.symly.repositories;
+
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A trie of the names of the repositories' paths, finding the repository containing a path in as many steps as the
+ * path has names.
+ */
+class RepositoryIndex {
+
+    private final Node root = new Node();
+
+    /**
+     * @param repositoriesByPriority the repositories, the one with the highest priority first
+     */
+    RepositoryIndex(List<Repository> repositoriesByPriority) {
+        for (int priority = 0; priority < repositoriesByPriority.size(); priority++) {
+            Repository repository = repositoriesByPriority.get(priority);
+            Path path = repository.toPath();
+            Node node = root.child(path.getRoot());
+            for (Path name : path) {
+                node = node.child(name);
+            }
+            if (node.repository == null) {
+                node.repository = repository;
+                node.priority = priority;
+            }
+        }
+    }
+
+    /**
+     * Returns the repository containing the given absolute path. If several repositories contain it, the one with the
+     * highest priority is returned.
+     *
+     * @param path the absolute path
+     * @return the repository containing {@code path}, or {@code null} if none does
+     */
+    Repository lookup(Path path) {
+        Node node = root.children.get(path.getRoot());
+        Node owner = null;
+        int nameCount = path.getNameCount();
+        for (int i = 0; node != null; i++) {
+            if (node.repository != null && (owner == null || node.priority < owner.priority)) {
+                owner = node;
+            }
+            node = i < nameCount ? node.children.get(path.getName(i)) : null;
+        }
+        return owner == null ? null : owner.repository;
+    }
+
+    private static class Node {
+
+        private final Map<Path, Node> children = new HashMap<>(4);
+        private Repository repository;
+        private int priority;
+
+        Node child(Path name) {
+            return children.computeIfAbsent(name, key -> new Node());
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package org.symly.repositories;
+
+import java.io.Serial;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.Stream;
+import org.symly.files.FileSystemReader;
+import org.symly.files.WalkSegments;
+
+/**
+ * Scans a {@link Repository} file tree on a {@link java.util.concurrent.ForkJoinPool}.
+ * <p>Sub-directories are scanned by forked tasks as long as the pool has idle workers, and are scanned inline
+ * otherwise. The results of the forked tasks are joined back in walk order so that the entries are returned in
+ * {@link FileSystemReader#WALK_ORDER}, as a sequential scan would return them.</p>
+ */
+class RepositoryScanTask extends RecursiveTask<List<RepositoryEntry>> {
+
+    /**
+     * The number of tasks waiting in the queue of the current worker above which sub-directories are not forked
+     * anymore.
+     */
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final int SURPLUS_QUEUED_TASKS_THRESHOLD = 2;
+
+    private final FileSystemReader fsReader;
+
+    private final Repository repository;
+
+    private final Path start;
+
+    /**
+     * The ignore matcher of the parent directory of {@link #start}, or {@code null} if {@link #start} is the root of
+     * the {@link #repository}.
+     */
+    private final IgnoreMatcher parentMatcher;
+
+    RepositoryScanTask(FileSystemReader fsReader, Repository repository, Path start, IgnoreMatcher parentMatcher) {
+        this.fsReader = fsReader;
+        this.repository = repository;
+        this.start = start;
+        this.parentMatcher = parentMatcher;
+    }
+
+    @Override
+    protected List<RepositoryEntry> compute() {
+        WalkSegments<RepositoryEntry> segments = new WalkSegments<>();
+        Path parent = parentMatcher != null ? start.getParent() : null;
+        RepositoryScanner scanner = new RepositoryScanner(fsReader, repository, parent, parentMatcher) {
+            @Override
+            boolean scanSeparately(Path dir, IgnoreMatcher matcher) {
+                if (dir.equals(start) || getSurplusQueuedTaskCount() > SURPLUS_QUEUED_TASKS_THRESHOLD) {
+                    return false;
+                }
+                segments.add(new RepositoryScanTask(fsReader, repository, dir, matcher).fork());
+                return true;
+            }
+        };
+        try (Stream<RepositoryEntry> entries = fsReader.walkSorted(start, scanner)) {
+            entries.forEach(segments);
+        }
+        return segments.join();
+    }
+}
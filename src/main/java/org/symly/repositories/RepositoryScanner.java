@@ -0,0 +1,134 @@
+package org.symly.repositories;
+
+import static org.symly.links.Configuration.SYMLINK_MARKER;
+
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import org.symly.files.FileSystemReader;
+import org.symly.files.PathAttributes;
+import org.symly.files.SortedFileVisitor;
+
+/**
+ * Scanner of a {@link Repository} file tree, walked by {@link FileSystemReader#walkSorted(Path, SortedFileVisitor)}.
+ * <p>The {@code .symlyignore} rules of a directory are compiled once into an {@link IgnoreMatcher} when entering it,
+ * once its content has been listed. The presence of the {@code .symlyignore} file and of a {@code .symlink} marker
+ * are detected from that listing, so that no other query is made to the file system for them.
+ * Directories ignored by the rules of their parents are never listed, and ignored directories are never descended
+ * into.</p>
+ */
+class RepositoryScanner implements SortedFileVisitor<RepositoryEntry> {
+
+    private final FileSystemReader fsReader;
+
+    private final Repository repository;
+
+    /**
+     * The directories leading to the current entry along with the ignore matchers applicable to their content, the
+     * innermost directory being the first element.
+     */
+    private final Deque<ScannedDirectory> directories = new ArrayDeque<>();
+
+    RepositoryScanner(FileSystemReader fsReader, Repository repository) {
+        this(fsReader, repository, null, null);
+    }
+
+    /**
+     * @param parent the parent directory of the walk's starting point, or {@code null} if the walk starts at the root
+     *     of the {@code repository}
+     * @param parentMatcher the ignore matcher of {@code parent}
+     */
+    RepositoryScanner(FileSystemReader fsReader, Repository repository, Path parent, IgnoreMatcher parentMatcher) {
+        this.fsReader = fsReader;
+        this.repository = repository;
+        if (parent != null) {
+            directories.push(new ScannedDirectory(parent, parentMatcher));
+        }
+    }
+
+    /**
+     * Allows to scan the sub-tree of a directory separately from the current walk. The sub-tree is then skipped by
+     * this scanner.
+     *
+     * @param dir the directory about to be visited
+     * @param parentMatcher the ignore matcher of the parent directory of {@code dir}
+     * @return {@code true} if the sub-tree of {@code dir} is scanned separately
+     */
+    boolean scanSeparately(Path dir, IgnoreMatcher parentMatcher) {
+        return false;
+    }
+
+    @Override
+    public Visit<RepositoryEntry> visit(Path path, BasicFileAttributes attrs) {
+        while (!directories.isEmpty() && !directories.element().path().equals(path.getParent())) {
+            directories.pop();
+        }
+        if (directories.isEmpty()) {
+            // The root is entered, hence its entry is only known once its content has been listed
+            return Visit.withContent(null);
+        }
+        IgnoreMatcher parentMatcher = directories.element().matcher();
+        if (attrs.isDirectory()) {
+            if (isIgnored(path, parentMatcher) || scanSeparately(path, parentMatcher)) {
+                return Visit.skip();
+            }
+            return Visit.withContent(null);
+        }
+        if (path.endsWith(IgnoreList.SYMLY_IGNORE) || isIgnored(path, parentMatcher)) {
+            return Visit.skip();
+        }
+        return Visit.of(entry(path, type(path, attrs), false));
+    }
+
+    /**
+     * Enters a directory once its content has been listed: the presence of its {@code .symlyignore} file and of a
+     * {@code .symlink} marker are detected from the listing, and its ignore rules are compiled.
+     */
+    @Override
+    public Visit<RepositoryEntry> enter(Path dir, Visit<RepositoryEntry> visit, List<PathAttributes> content) {
+        boolean hasIgnoreList = contains(content, IgnoreList.SYMLY_IGNORE);
+        IgnoreMatcher matcher;
+        if (directories.isEmpty()) {
+            matcher = IgnoreMatcher.NONE.with(IgnoreList.readTopLevel(fsReader, dir, hasIgnoreList));
+        } else {
+            matcher = directories.element().matcher().with(IgnoreList.read(fsReader, dir, hasIgnoreList));
+        }
+        if (isIgnored(dir, matcher)) {
+            return Visit.skip();
+        }
+        directories.push(new ScannedDirectory(dir, matcher));
+        boolean marked = !matcher.matches(SYMLINK_MARKER) && contains(content, SYMLINK_MARKER);
+        return Visit.withContent(entry(dir, RepositoryEntry.Type.DIRECTORY, marked));
+    }
+
+    private static boolean contains(List<PathAttributes> content, String name) {
+        return content.stream()
+                .anyMatch(entry -> entry.path().getFileName().toString().equals(name));
+    }
+
+    private RepositoryEntry.Type type(Path file, BasicFileAttributes attrs) {
+        // Symbolic links are typed after the entry they point to
+        if (attrs.isSymbolicLink() && fsReader.isDirectory(file)) {
+            return RepositoryEntry.Type.DIRECTORY;
+        }
+        return RepositoryEntry.Type.FILE;
+    }
+
+    private boolean isIgnored(Path path, IgnoreMatcher matcher) {
+        return matcher.matches(repository.relativize(path).getFileName().toString());
+    }
+
+    private RepositoryEntry entry(Path path, RepositoryEntry.Type type, boolean marked) {
+        return RepositoryEntry.of(repository.relativize(path), path, type, marked);
+    }
+
+    /**
+     * A directory being walked.
+     *
+     * @param path the path of the directory
+     * @param matcher the ignore matcher applicable to the content of the directory
+     */
+    private record ScannedDirectory(Path path, IgnoreMatcher matcher) {}
+}
@@ -0,0 +1,299 @@
+package org.symly.stats;
+
+import static java.util.Spliterator.ORDERED;
+import static java.util.Spliterators.spliteratorUnknownSize;
+
+import java.io.PrintWriter;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Statistics of the execution of a command: the time spent in each of its {@link Phase}, and the number and total
+ * duration of the calls made to the file system, by operation.
+ * <p>Nothing is recorded until the statistics are {@link #enable(Format) enabled}, the phases then only checking
+ * whether they are, and the file system readers and writers not being instrumented at all.</p>
+ * <p>The time of a phase is exclusive of the time of the phases nested in it: while the links are being computed, the
+ * time spent scanning the repositories is only accounted to the {@link Phase#REPOSITORY_SCAN}, so that the phases,
+ * which are interleaved as the links are computed lazily, add up to the duration of the command. Phases are timed on
+ * the thread running the command, while file system calls can be recorded from any thread.</p>
+ */
+public class Stats {
+
+    private static final double NANOS_PER_MILLI = 1_000_000d;
+
+    private final long[] phasesNanos = new long[Phase.values().length];
+
+    private final Map<String, Calls> calls = new ConcurrentHashMap<>();
+
+    private volatile boolean enabled = false;
+
+    private Format format = Format.TEXT;
+
+    private long start;
+
+    private Phase currentPhase;
+
+    private long currentPhaseStart;
+
+    /**
+     * Enables the recording of the statistics, from now on.
+     *
+     * @param format the format in which the statistics are to be reported
+     */
+    public void enable(Format format) {
+        this.format = format;
+        start = System.nanoTime();
+        enabled = true;
+    }
+
+    public boolean enabled() {
+        return enabled;
+    }
+
+    /**
+     * Runs a phase.
+     *
+     * @param phase the phase
+     * @param action the action run by the phase
+     * @param <T> the type of the value computed by the phase
+     * @return the value computed by the phase
+     */
+    public <T> T time(Phase phase, Supplier<T> action) {
+        if (!enabled) {
+            return action.get();
+        }
+        Phase previousPhase = enter(phase);
+        try {
+            return action.get();
+        } finally {
+            enter(previousPhase);
+        }
+    }
+
+    /**
+     * Runs a phase.
+     *
+     * @param phase the phase
+     * @param action the action run by the phase
+     */
+    public void time(Phase phase, Runnable action) {
+        time(phase, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Returns an iterator accounting the time spent computing its elements to a phase.
+     *
+     * @param phase the phase
+     * @param iterator the iterator
+     * @param <T> the type of the elements
+     * @return the timed iterator, or {@code iterator} itself if the statistics are not enabled
+     */
+    public <T> Iterator<T> timed(Phase phase, Iterator<T> iterator) {
+        if (!enabled) {
+            return iterator;
+        }
+        return new Iterator<>() {
+            @Override
+            public boolean hasNext() {
+                return time(phase, iterator::hasNext);
+            }
+
+            @Override
+            public T next() {
+                return time(phase, iterator::next);
+            }
+        };
+    }
+
+    /**
+     * Returns a stream accounting the time spent computing its elements to a phase. Closing it closes {@code stream}.
+     *
+     * @param phase the phase
+     * @param stream the stream
+     * @param <T> the type of the elements
+     * @return the timed stream, or {@code stream} itself if the statistics are not enabled
+     */
+    public <T> Stream<T> timed(Phase phase, Stream<T> stream) {
+        if (!enabled) {
+            return stream;
+        }
+        Iterator<T> iterator = timed(phase, stream.iterator());
+        return StreamSupport.stream(spliteratorUnknownSize(iterator, ORDERED), false)
+                .onClose(stream::close);
+    }
+
+    /**
+     * Returns a stream accounting both the time spent creating it and the time spent computing its elements to a
+     * phase. Closing it closes the created stream.
+     *
+     * @param phase the phase
+     * @param stream the supplier creating the stream
+     * @param <T> the type of the elements
+     * @return the timed stream
+     */
+    public <T> Stream<T> timed(Phase phase, Supplier<Stream<T>> stream) {
+        return timed(phase, time(phase, stream));
+    }
+
+    /**
+     * Makes a call to the file system, recording its duration.
+     *
+     * @param operation the name of the operation called
+     * @param call the call
+     * @param <T> the type of the value returned by the call
+     * @param <E> the type of the exception thrown by the call
+     * @return the value returned by the call
+     * @throws E if the call fails, in which case it is recorded nonetheless
+     */
+    public <T, E extends Exception> T call(String operation, Call<T, E> call) throws E {
+        if (!enabled) {
+            return call.call();
+        }
+        long callStart = System.nanoTime();
+        try {
+            return call.call();
+        } finally {
+            calls.computeIfAbsent(operation, o -> new Calls()).record(System.nanoTime() - callStart);
+        }
+    }
+
+    /**
+     * Returns the time spent in a phase so far, exclusive of the phases nested in it.
+     */
+    long nanos(Phase phase) {
+        return phasesNanos[phase.ordinal()];
+    }
+
+    /**
+     * Returns the number of calls made so far to a file system operation.
+     */
+    long count(String operation) {
+        Calls operationCalls = calls.get(operation);
+        return operationCalls == null ? 0 : operationCalls.count.sum();
+    }
+
+    private Phase enter(Phase phase) {
+        long now = System.nanoTime();
+        if (currentPhase != null) {
+            phasesNanos[currentPhase.ordinal()] += now - currentPhaseStart;
+        }
+        Phase previousPhase = currentPhase;
+        currentPhase = phase;
+        currentPhaseStart = now;
+        return previousPhase;
+    }
+
+    /**
+     * Reports the statistics recorded so far, in the format they were enabled with.
+     *
+     * @param writer the writer to report the statistics to
+     */
+    public void report(PrintWriter writer) {
+        long totalNanos = System.nanoTime() - start;
+        long otherNanos = totalNanos;
+        for (long phaseNanos : phasesNanos) {
+            otherNanos -= phaseNanos;
+        }
+        Map<String, Calls> sortedCalls = new TreeMap<>(calls);
+        if (format == Format.JSON) {
+            reportJson(writer, totalNanos, otherNanos, sortedCalls);
+        } else {
+            reportText(writer, totalNanos, otherNanos, sortedCalls);
+        }
+        writer.flush();
+    }
+
+    private void reportText(PrintWriter writer, long totalNanos, long otherNanos, Map<String, Calls> sortedCalls) {
+        writer.printf("%-20s %14s%n", "phase", "time (ms)");
+        for (Phase phase : Phase.values()) {
+            writer.printf("%-20s %14s%n", phase.label, millis(phasesNanos[phase.ordinal()]));
+        }
+        writer.printf("%-20s %14s%n", "other", millis(otherNanos));
+        writer.printf("%-20s %14s%n", "total", millis(totalNanos));
+        writer.printf("%n%-20s %10s %14s%n", "file system call", "count", "time (ms)");
+        sortedCalls.forEach(
+                (operation, c) -> writer.printf("%-20s %10d %14s%n", operation, c.count.sum(), millis(c.nanos.sum())));
+    }
+
+    private void reportJson(PrintWriter writer, long totalNanos, long otherNanos, Map<String, Calls> sortedCalls) {
+        writer.printf("{\"totalNanos\":%d,\"otherNanos\":%d,\"phases\":[", totalNanos, otherNanos);
+        String separator = "";
+        for (Phase phase : Phase.values()) {
+            writer.printf("%s{\"phase\":\"%s\",\"nanos\":%d}", separator, phase.label, phasesNanos[phase.ordinal()]);
+            separator = ",";
+        }
+        writer.printf("],\"calls\":[");
+        separator = "";
+        for (Map.Entry<String, Calls> entry : sortedCalls.entrySet()) {
+            writer.printf(
+                    "%s{\"operation\":\"%s\",\"count\":%d,\"nanos\":%d}",
+                    separator,
+                    entry.getKey(),
+                    entry.getValue().count.sum(),
+                    entry.getValue().nanos.sum());
+            separator = ",";
+        }
+        writer.printf("]}%n");
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / NANOS_PER_MILLI);
+    }
+
+    /**
+     * The phases of the execution of a command.
+     */
+    public enum Phase {
+        CONFIG_LOAD("config load"),
+        REPOSITORY_SCAN("repository scan"),
+        LINK_COMPUTATION("link computation"),
+        ORPHAN_SCAN("orphan scan"),
+        ACTION_APPLY("action apply");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * The formats in which the statistics can be reported.
+     */
+    public enum Format {
+        TEXT,
+        JSON
+    }
+
+    /**
+     * A call to the file system.
+     *
+     * @param <T> the type of the value returned by the call
+     * @param <E> the type of the exception thrown by the call
+     */
+    @FunctionalInterface
+    public interface Call<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    private static class Calls {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+
+        void record(long callNanos) {
+            count.increment();
+            nanos.add(callNanos);
+        }
+    }
+}
@@ -0,0 +1,24 @@
+# Sourced by the launchers to use the AppCDS archive created for their JVM from the class list of the build training
+# runs: use_cds_archive <java-command> <class-path> <class-list-file> sets cds_option to the option using the archive.
+# The archive is created in the background on the first run, and again once the JVM or symly has been updated.
+#
+# Runs started while the archive is being created do not use it. A lock directory ensures that only one of them
+# creates it, and the archive is written to a temporary file renamed once complete, so that a partial archive is never
+# used. A lock left over by an interrupted creation is ignored after 10 minutes.
+cds_option=""
+use_cds_archive() {
+    java_home="$(dirname "$(dirname "$(realpath "$(command -v "$1")" 2>/dev/null || readlink -f "$(command -v "$1")")")")"
+    [ -f "$java_home/lib/modules" ] && [ -f "$3" ] || return 0
+    archive="${XDG_CACHE_HOME:-$HOME/.cache}/symly/cds/$(printf '%s\n%s\n' "$java_home" "$2" | cksum | cut -d ' ' -f 1).jsa"
+    if [ "$archive" -nt "$java_home/lib/modules" ] && [ "$archive" -nt "$3" ]; then
+        cds_option="-XX:SharedArchiveFile=$archive"
+        return 0
+    fi
+    mkdir -p "$(dirname "$archive")" 2>/dev/null || return 0
+    if [ -n "$(find "$archive.lock" -maxdepth 0 -mmin +10 2>/dev/null)" ]; then
+        rmdir "$archive.lock" 2>/dev/null || true
+    fi
+    mkdir "$archive.lock" 2>/dev/null || return 0
+    ( ("$1" -Xshare:dump -XX:SharedClassListFile="$3" -XX:SharedArchiveFile="$archive.$$" --class-path "$2" \
+        && mv -f "$archive.$$" "$archive" || rm -f "$archive.$$"); rmdir "$archive.lock") >/dev/null 2>&1 &
+}
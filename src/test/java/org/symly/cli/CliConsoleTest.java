@@ -0,0 +1,98 @@
+package org.symly.cli;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import org.junit.jupiter.api.Test;
+
+class CliConsoleTest {
+
+    /**
+     * Both outputs write to the same terminal-like writer, the standard output through a buffer.
+     */
+    private final StringWriter terminal = new StringWriter();
+
+    private final CliConsole console = new CliConsole(
+            new PrintWriter(new BufferedWriter(terminal, 1024), false), new PrintWriter(terminal, true), true);
+
+    @Test
+    void printf_shouldBuffer_standardOutput_untilFlushed() {
+        // when
+        console.printf("added: a%n");
+        console.printf("added: b%n");
+        // then
+        assertThat(terminal.toString()).isEqualTo("");
+        console.flush();
+        assertThat(terminal.toString()).isEqualTo("added: a%nadded: b%n".formatted());
+    }
+
+    @Test
+    void eprintf_shouldFlushStandardOutput_beforeWritingToStandardError() {
+        // when
+        console.printf("added: a%n");
+        console.eprintf("error: b%n");
+        console.ewriter().println("error: c");
+        console.printf("added: d%n");
+        console.flush();
+        // then
+        assertThat(terminal.toString()).isEqualTo("added: a%nerror: b%nerror: c%nadded: d%n".formatted());
+    }
+
+    @Test
+    void outputClosed_shouldBeDetected_onceAWriteFails() {
+        // given
+        ClosableWriter output = new ClosableWriter();
+        CliConsole unbufferedConsole = new CliConsole(new PrintWriter(output), new PrintWriter(terminal));
+        unbufferedConsole.printf("added: a%n");
+        assertThat(unbufferedConsole.outputClosed()).isFalse();
+        // when
+        output.closed = true;
+        unbufferedConsole.printf("added: b%n");
+        // then
+        assertThat(unbufferedConsole.outputClosed()).isTrue();
+    }
+
+    @Test
+    void outputClosed_shouldBeDetected_whenFlushingABufferedOutput() {
+        // given
+        ClosableWriter output = new ClosableWriter();
+        CliConsole bufferedConsole = new CliConsole(
+                new PrintWriter(new BufferedWriter(output, 1024), false), new PrintWriter(terminal), true);
+        output.closed = true;
+        bufferedConsole.printf("added: a%n");
+        assertThat(bufferedConsole.outputClosed()).isFalse();
+        // when
+        bufferedConsole.flush();
+        // then
+        assertThat(bufferedConsole.outputClosed()).isTrue();
+    }
+
+    /**
+     * A writer failing like a pipe whose reading end has been closed.
+     */
+    private static class ClosableWriter extends Writer {
+
+        private boolean closed = false;
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            if (closed) {
+                throw new IOException("Broken pipe");
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            // nothing is buffered
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
@@ -29,6 +29,22 @@ class LinkCommandOrphanDeletionTest extends IntegrationTest {
                 .withFileTreeDiff(Diff.empty());
     }
 
+    @Test
+    void shouldFail_whenOrphanLookupMaxDepthOverride_isNegative() {
+        // given
+        given(env)
+                .withLayout("D to/dir")
+                .withFileContent("symly.config", """
+            orphans.max-depth.overrides = sub:-1
+            """);
+        // when/then
+        whenRunningCommand("link", "-v", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .failWithConfigurationError()
+                .withErrorMessage(ctxMsg.maxDepthMustBePositive(-1))
+                .withFileTreeDiff(Diff.empty());
+    }
+
     @Test
     void shouldNotDelete_linksNotBeingOrphans() {
         // given
@@ -245,4 +261,162 @@ class LinkCommandOrphanDeletionTest extends IntegrationTest {
                 .withMessage(msg.linkActionDelete("sub/dir/nonexistingfile", "to-dir/sub/dir/nonexistingfile"))
                 .withFileTreeDiff(Diff.ofChanges("-L outside/dir/nonexistingfile -> to-dir/sub/dir/nonexistingfile"));
     }
+
+    @Test
+    void shouldDeleteOrphans_withinLookupMaxDepth_whenScannedInParallel() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/file -> to/dir/file
+            L home/user/level1/file -> to/dir/level1/file
+            L home/user/level1/level2/file -> to/dir/level1/level2/file
+            L home/user/sub/dir/level1/file -> to/dir/sub/dir/level1/file
+            L home/user/sub/dir/level1/level2/file -> to/dir/sub/dir/level1/level2/file
+            D to/dir/sub/dir
+            """);
+        // when/then
+        whenRunningCommand("link", "-v", "--parallel", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.linkActionDelete("file", "to/dir/file"))
+                .withMessage(msg.linkActionDelete("level1/file", "to/dir/level1/file"))
+                .withMessage(msg.linkActionDelete("sub/dir/level1/file", "to/dir/sub/dir/level1/file"))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+            -L home/user/file -> to/dir/file
+            -L home/user/level1/file -> to/dir/level1/file
+            -L home/user/sub/dir/level1/file -> to/dir/sub/dir/level1/file
+            """));
+    }
+
+    @Test
+    void shouldNotDeleteOrphans_inExcludedDirectories() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/level1/file -> to/dir/level1/file
+            L home/user/sub/dir/file -> to/dir/sub/dir/file
+            L home/user/sub/dir/cache/file -> to/dir/sub/dir/cache/file
+            D to/dir/sub/dir
+            """)
+                .withFileContent("symly.config", """
+            orphans.exclude = level1, **/cache
+            """);
+        // when/then
+        whenRunningCommand("link", "-v", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withoutMessage(msg.linkActionDelete("level1/file", "to/dir/level1/file"))
+                .withoutMessage(msg.linkActionDelete("sub/dir/cache/file", "to/dir/sub/dir/cache/file"))
+                .withMessage(msg.linkActionDelete("sub/dir/file", "to/dir/sub/dir/file"))
+                .withFileTreeDiff(Diff.ofChanges("-L home/user/sub/dir/file -> to/dir/sub/dir/file"));
+    }
+
+    @Test
+    void shouldDeleteOrphans_withinOverriddenLookupMaxDepth() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/level1/level2/file -> to/dir/level1/level2/file
+            L home/user/sub/dir/level1/level2/file -> to/dir/sub/dir/level1/level2/file
+            D to/dir/sub/dir
+            """)
+                .withFileContent(
+                        "symly.config",
+                        """
+            orphans.max-depth.overrides = level1:2, sub/dir:3
+            """);
+        // when/then
+        whenRunningCommand("link", "-v", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.linkActionDelete("level1/level2/file", "to/dir/level1/level2/file"))
+                .withMessage(msg.linkActionDelete("sub/dir/level1/level2/file", "to/dir/sub/dir/level1/level2/file"))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+            -L home/user/level1/level2/file -> to/dir/level1/level2/file
+            -L home/user/sub/dir/level1/level2/file -> to/dir/sub/dir/level1/level2/file
+            """));
+    }
+
+    @Test
+    void shouldNotDeleteRepositoryFiles_whenDirectoryContainingOrphans_isOverwritten() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/a/l -> to/dir/a/l
+            L home/user/a/m -> to/dir/a/m
+            F to/dir/a/.symlink
+            F to/dir/a/l
+            F to/dir/a/m
+            """);
+        // when/then
+        whenRunningCommand("link", "-v", "--force", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.linkActionCreate("a", "to/dir/a"))
+                .withoutMessage(msg.linkActionDelete("a/l", "to/dir/a/l"))
+                .withoutMessage(msg.linkActionDelete("a/m", "to/dir/a/m"))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+            -L home/user/a/l -> to/dir/a/l
+            -L home/user/a/m -> to/dir/a/m
+            +L home/user/a -> to/dir/a
+            """));
+    }
+
+    @Test
+    void shouldNotDeleteRepositoryFiles_whenDirectoryContainingOrphans_isOverwritten_inParallel() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/a/l -> to/dir/a/l
+            L home/user/a/m -> to/dir/a/m
+            F to/dir/a/.symlink
+            F to/dir/a/l
+            F to/dir/a/m
+            """);
+        // when/then
+        whenRunningCommand("link", "-v", "--parallel", "--force", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.linkActionCreate("a", "to/dir/a"))
+                .withoutMessage(msg.linkActionDelete("a/l", "to/dir/a/l"))
+                .withoutMessage(msg.linkActionDelete("a/m", "to/dir/a/m"))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+            -L home/user/a/l -> to/dir/a/l
+            -L home/user/a/m -> to/dir/a/m
+            +L home/user/a -> to/dir/a
+            """));
+    }
+
+    @Test
+    void shouldDeleteOrphanNotRecordedInTheManifest_withFullScan() {
+        // given
+        given(env).withLayout("F to/dir/file");
+        env.withFileContent("symly.config", "manifest = true\n");
+        whenRunningCommand("link", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed();
+        env.withLayout("L home/user/orphan -> to/dir/orphan");
+        whenRunningCommand("link", "-v", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withoutMessage(msg.linkActionDelete("orphan", "to/dir/orphan"));
+        // when/then
+        whenRunningCommand("link", "-v", "--dir", "~", "--repositories", "to/dir", "--full-scan")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.linkActionDelete("orphan", "to/dir/orphan"));
+    }
 }
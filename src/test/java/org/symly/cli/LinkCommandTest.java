@@ -1,7 +1,10 @@
 package org.symly.cli;
 
+import static org.symly.testing.Assertions.assertThat;
+
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.symly.env.Execution;
 import org.symly.env.IntegrationTest;
 import org.symly.files.FileTree.Diff;
 
@@ -303,4 +306,96 @@ class LinkCommandTest extends IntegrationTest {
                         msg.linkActionDelete("file", "home/user/repo/file")))
                 .withFileTreeDiff(Diff.empty());
     }
+
+    @Test
+    void shouldLinkFiles_byRespectingLayers_whenRepositoriesAreScannedInParallel() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+    F home/user/layer0/file
+    F home/user/layer0/dir/file1
+    F home/user/layer0/dir/file2
+    F home/user/layer1/dir/file1
+    F home/user/layer1/other-dir/file
+    """);
+        // when/then
+        whenRunningCommand(
+                        "link",
+                        "-v",
+                        "--parallel",
+                        "--dir",
+                        "~",
+                        "--repositories",
+                        "home/user/layer0",
+                        "home/user/layer1")
+                .thenItShould()
+                .succeed()
+                .withMessages(List.of(
+                        msg.linkActionCreate("dir/file1", "home/user/layer1/dir/file1"),
+                        msg.linkActionCreate("dir/file2", "home/user/layer0/dir/file2"),
+                        msg.linkActionCreate("file", "home/user/layer0/file"),
+                        msg.linkActionCreate("other-dir/file", "home/user/layer1/other-dir/file")))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+    +L home/user/dir/file1 -> home/user/layer1/dir/file1
+    +L home/user/dir/file2 -> home/user/layer0/dir/file2
+    +L home/user/file -> home/user/layer0/file
+    +L home/user/other-dir/file -> home/user/layer1/other-dir/file
+    """));
+    }
+
+    @Test
+    void shouldStopAtFirstConflict_whenLinksAreCreatedInParallel() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+    F home/user/dir
+    F home/user/repo/a/file
+    F home/user/repo/dir
+    F home/user/repo/z/file
+    """);
+        // when/then
+        whenRunningCommand("link", "-v", "--parallel", "--dir", "~", "--repositories", "home/user/repo")
+                .thenItShould()
+                .failWithError()
+                .withErrorMessages(msg.cannotCreateLinkError("dir", "home/user/repo/dir"))
+                .withMessage(msg.linkActionCreate("a/file", "home/user/repo/a/file"))
+                .withMessage(msg.linkActionConflict("dir", "home/user/repo/dir"))
+                .withoutMessage(msg.linkActionCreate("z/file", "home/user/repo/z/file"));
+    }
+
+    @Test
+    void shouldReportStats_onStandardError_whenRequested() {
+        // given
+        given(env).withLayout("F home/user/to/dir/file");
+        // when
+        Execution execution = whenRunningCommand("link", "--stats", "--dir", "~", "--repositories", "home/user/to/dir");
+        // then
+        assertThat(execution.exitCode()).isEqualTo(0);
+        assertThat(execution.stdOut()).contains(msg.linkActionCreate("file", "home/user/to/dir/file"));
+        assertThat(execution.stdErr().stream().anyMatch(line -> line.matches("action apply +\\d+\\.\\d{3}")))
+                .withFailMessage("No action apply phase reported in %s", execution.stdErr())
+                .isTrue();
+        assertThat(execution.stdErr().stream().anyMatch(line -> line.matches("createSymbolicLink +1 +\\d+\\.\\d{3}")))
+                .withFailMessage("No symbolic link creation reported in %s", execution.stdErr())
+                .isTrue();
+    }
+
+    @Test
+    void shouldReportStats_asJson_whenRequestedInLowerCase() {
+        // given
+        given(env).withLayout("F home/user/to/dir/file");
+        // when
+        Execution execution =
+                whenRunningCommand("link", "--stats=json", "--dir", "~", "--repositories", "home/user/to/dir");
+        // then
+        assertThat(execution.exitCode()).isEqualTo(0);
+        assertThat(execution.stdErr().stream()
+                        .anyMatch(line -> line.contains("{\"operation\":\"createSymbolicLink\",\"count\":1,")))
+                .withFailMessage("No symbolic link creation reported in %s", execution.stdErr())
+                .isTrue();
+    }
 }
@@ -1,7 +1,10 @@
 package org.symly.cli;
 
+import static org.symly.testing.Assertions.assertThat;
+
 import java.util.List;
 import org.junit.jupiter.api.Test;
+import org.symly.env.Execution;
 import org.symly.env.IntegrationTest;
 import org.symly.files.FileTree;
 
@@ -91,4 +94,134 @@ class StatusCommandTest extends IntegrationTest {
                 .withMessage(msg.checkingLinks("main/dir", List.of("to/dir", "to/other-dir")))
                 .withFileTreeDiff(FileTree.Diff.empty());
     }
+
+    @Test
+    void shouldReportOutOfSyncLinks_withExitCode() {
+        // given
+        given(env).withLayout("F to/dir/file");
+        // when/then
+        whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "--exit-code")
+                .thenItShould()
+                .reportLinksOutOfSync()
+                .withMessage(msg.missingLink("file", "to/dir/file"))
+                .withFileTreeDiff(FileTree.Diff.empty());
+    }
+
+    @Test
+    void shouldSucceedQuietly_whenLinksAreUpToDate() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/file -> to/dir/file
+            L home/user/other -> opt/other
+            F opt/other
+            F to/dir/file
+            """);
+        // when
+        Execution execution =
+                whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "-q", "--exit-code");
+        // then
+        execution.thenItShould().succeed().withFileTreeDiff(FileTree.Diff.empty());
+        assertThat(execution.stdOut()).isEmpty();
+    }
+
+    @Test
+    void shouldReportMissingLinkQuietly_withExitCode() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/file -> to/dir/file
+            F to/dir/file
+            F to/dir/missing
+            """);
+        // when
+        Execution execution =
+                whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "-q", "--exit-code");
+        // then
+        execution.thenItShould().reportLinksOutOfSync().withFileTreeDiff(FileTree.Diff.empty());
+        assertThat(execution.stdOut()).isEmpty();
+    }
+
+    @Test
+    void shouldReportOrphanLinkQuietly_withExitCode() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/file -> to/dir/file
+            L home/user/orphan -> to/dir/orphan
+            F to/dir/file
+            """);
+        // when
+        Execution execution =
+                whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "-q", "--exit-code");
+        // then
+        execution.thenItShould().reportLinksOutOfSync().withFileTreeDiff(FileTree.Diff.empty());
+        assertThat(execution.stdOut()).isEmpty();
+    }
+
+    @Test
+    void shouldSucceedQuietly_withoutExitCode_whenLinksAreNotUpToDate() {
+        // given
+        given(env).withLayout("F to/dir/file");
+        // when
+        Execution execution = whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "--quiet");
+        // then
+        execution.thenItShould().succeed().withFileTreeDiff(FileTree.Diff.empty());
+        assertThat(execution.stdOut()).isEmpty();
+    }
+
+    @Test
+    void shouldSucceedQuietly_whenLinksRecordedInTheManifest_areUpToDate() {
+        // given
+        given(env).withLayout("F to/dir/file");
+        env.withFileContent("symly.config", "manifest = true\n");
+        whenRunningCommand("link", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed();
+        // when/then
+        whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "-q", "--exit-code")
+                .thenItShould()
+                .succeed();
+    }
+
+    @Test
+    void shouldReportOrphanLinkRecordedInTheManifest_quietly() {
+        // given
+        given(env).withLayout("""
+            F to/dir/file
+            F to/dir/other
+            """);
+        env.withFileContent("symly.config", "manifest = true\n");
+        whenRunningCommand("link", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed();
+        env.deleteFile("to/dir/other");
+        // when/then
+        whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "-q", "--exit-code")
+                .thenItShould()
+                .reportLinksOutOfSync();
+    }
+
+    @Test
+    void shouldReportOrphanLinkNotRecordedInTheManifest_withFullScan() {
+        // given
+        given(env).withLayout("F to/dir/file");
+        env.withFileContent("symly.config", "manifest = true\n");
+        whenRunningCommand("link", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed();
+        env.withLayout("L home/user/orphan -> to/dir/orphan");
+        whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir")
+                .thenItShould()
+                .succeed()
+                .withoutMessage(msg.orphanLink("orphan"));
+        // when/then
+        whenRunningCommand("status", "--dir", "~", "--repositories", "to/dir", "--full-scan")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.orphanLink("orphan"));
+    }
 }
@@ -0,0 +1,125 @@
+package org.symly.cli;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.symly.files.FileSystemReader;
+import org.symly.files.WatchedDirectories;
+import org.symly.links.Context;
+import org.symly.links.LinkState;
+import org.symly.links.OrphanLookup;
+import org.symly.repositories.MainDirectory;
+import org.symly.repositories.Repositories;
+import org.symly.repositories.Repository;
+
+class StatusDaemonTest {
+
+    private static final long QUERY_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final WatchedDirectories watchedDirectories = WatchedDirectories.create();
+
+    private final FileSystemReader reader = watchedDirectories.reader(new FileSystemReader.RealFileSystemReader());
+
+    @TempDir
+    private Path root;
+
+    private Path home;
+
+    private Path repository;
+
+    private Path socket;
+
+    private Context context;
+
+    private Thread daemon;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        home = root.resolve("home");
+        repository = root.resolve("repository");
+        Files.createDirectories(home.resolve("some/dir"));
+        Files.createDirectories(repository.resolve("some/dir"));
+        Files.createFile(repository.resolve("some/dir/file"));
+        socket = root.resolve("sockets/status.sock");
+        MainDirectory mainDirectory = MainDirectory.of(home);
+        context = new Context(
+                mainDirectory,
+                Repositories.of(reader, List.of(Repository.of(repository))),
+                // The directory of the link is never listed by the orphans lookup
+                OrphanLookup.of(mainDirectory, 2, List.of("some"), Map.of()),
+                null);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        if (daemon != null) {
+            daemon.interrupt();
+            daemon.join();
+        }
+        watchedDirectories.close();
+    }
+
+    @Test
+    void query_shouldReturnUpdatedStatus_whenLinkIsCreated() throws IOException {
+        // given
+        startDaemon();
+        assertThat(awaitStatus(status -> true)).containsExactly(linkState(LinkState.Entry.missingEntry()));
+        // when
+        Files.createSymbolicLink(home.resolve("some/dir/file"), repository.resolve("some/dir/file"));
+        // then
+        assertThat(awaitStatus(status -> !status.get(0).currentState().equals(LinkState.Entry.missingEntry())))
+                .containsExactly(linkState(LinkState.Entry.linkEntry(repository.resolve("some/dir/file"))));
+    }
+
+    @Test
+    void query_shouldReturnNothing_whenSocketDirectoryIsAccessibleToOtherUsers() throws IOException {
+        // given
+        startDaemon();
+        awaitStatus(status -> true);
+        // when
+        Files.setPosixFilePermissions(socket.getParent(), PosixFilePermissions.fromString("rwxrwxrwx"));
+        // then
+        assertThat(StatusDaemon.query(context, socket)).isEmpty();
+    }
+
+    private void startDaemon() {
+        CliConsole console = new CliConsole(new PrintWriter(new StringWriter()), new PrintWriter(new StringWriter()));
+        daemon = new Thread(() -> new StatusDaemon(context, watchedDirectories, reader, socket).serve(console));
+        daemon.start();
+    }
+
+    private List<LinkState> awaitStatus(Predicate<List<LinkState>> condition) {
+        long deadline = System.currentTimeMillis() + QUERY_TIMEOUT_MILLIS;
+        // Changes are reported asynchronously, and the daemon takes some time to start
+        while (System.currentTimeMillis() < deadline) {
+            Optional<List<LinkState>> status = StatusDaemon.query(context, socket);
+            if (status.isPresent() && condition.test(status.get())) {
+                return status.get();
+            }
+            Thread.onSpinWait();
+        }
+        throw new AssertionError("No matching status served");
+    }
+
+    private LinkState linkState(LinkState.Entry currentState) {
+        return new LinkState(
+                context.mainDirectory(),
+                home.resolve("some/dir/file"),
+                currentState,
+                repository.resolve("some/dir/file"));
+    }
+}
@@ -184,6 +184,37 @@ class UnlinkCommandTest extends IntegrationTest {
                 """));
     }
 
+    @Test
+    void shouldUnlink_regardlessOfOrphansLookupExclusionsAndMaxDepthOverrides() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/excluded/file -> to-dir/excluded/file
+            L home/user/sub/level1/file -> to-dir/sub/level1/file
+            F to-dir/excluded/file
+            D to-dir/sub
+            """)
+                .withFileContent(
+                        "symly.config",
+                        """
+            orphans.exclude = excluded
+            orphans.max-depth.overrides = sub:0
+            """);
+        // when/then
+        whenRunningCommand("unlink", "--dir", "~", "--repositories", "to-dir")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.actionUnlink("excluded/file", "to-dir/excluded/file"))
+                .withMessage(msg.actionUnlink("sub/level1/file", "to-dir/sub/level1/file"))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+                -L home/user/excluded/file -> to-dir/excluded/file
+                -L home/user/sub/level1/file -> to-dir/sub/level1/file
+                """));
+    }
+
     @Test
     void shouldUnlink_whenLinkTarget_pointsToRepository_evenIfTargetDoesNotExist() {
         // given
@@ -240,4 +271,56 @@ class UnlinkCommandTest extends IntegrationTest {
                 -L home/user/some/nested/file -> to-dir/some/nested/file
                 """));
     }
+
+    @Test
+    void shouldUnlink_whenLinksAreDeletedInParallel() {
+        // given
+        given(env)
+                .withLayout(
+                        """
+            L home/user/file -> to-dir/file
+            L home/user/nested/file -> to-dir/nested/file
+            L home/user/nested/other-file -> to-dir/nested/other-file
+            L home/user/other/file -> to-dir/other/file
+            F home/user/nested/regular-file
+            F to-dir/file
+            F to-dir/nested/file
+            F to-dir/nested/other-file
+            F to-dir/other/file
+            """);
+        // when/then
+        whenRunningCommand("unlink", "--parallel", "--dir", "~", "--repositories", "to-dir")
+                .thenItShould()
+                .succeed()
+                .withMessages(List.of(
+                        msg.actionUnlink("file", "to-dir/file"),
+                        msg.actionUnlink("nested/file", "to-dir/nested/file"),
+                        msg.actionUnlink("nested/other-file", "to-dir/nested/other-file"),
+                        msg.actionUnlink("other/file", "to-dir/other/file")))
+                .withFileTreeDiff(
+                        Diff.ofChanges(
+                                """
+                -L home/user/file -> to-dir/file
+                -L home/user/nested/file -> to-dir/nested/file
+                -L home/user/nested/other-file -> to-dir/nested/other-file
+                -L home/user/other/file -> to-dir/other/file
+                """));
+    }
+
+    @Test
+    void shouldUnlink_linksNotRecordedInTheManifest_withFullScan() {
+        // given
+        given(env).withLayout("F to-dir/file");
+        env.withFileContent("symly.config", "manifest = true\n");
+        whenRunningCommand("link", "--dir", "~", "--repositories", "to-dir")
+                .thenItShould()
+                .succeed();
+        env.withLayout("L home/user/other -> to-dir/other");
+        // when/then
+        whenRunningCommand("unlink", "--dir", "~", "--repositories", "to-dir", "--full-scan")
+                .thenItShould()
+                .succeed()
+                .withMessage(msg.actionUnlink("file", "to-dir/file"))
+                .withMessage(msg.actionUnlink("other", "to-dir/other"));
+    }
 }
@@ -239,6 +239,17 @@ F home/user/repository/.gitconfig
                 commands(executionReport.fileTreeBefore(), executionReport.symlyExecution()));
     }
 
+    @Test
+    void displayWatchHelpExample() {
+        // given
+        given(env).withWorkingDir("home/user");
+        // when/then
+        var executionReport =
+                whenRunningCommand("watch", "--help").thenItShould().succeed().executionReport();
+
+        AsciiDocSnippet.save("symly-watch-help", executionReport.symlyExecution());
+    }
+
     private String commands(String... commands) {
         return String.join("\n\n", commands);
     }
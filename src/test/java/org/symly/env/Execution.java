@@ -55,6 +55,7 @@ public record Execution(
         private static final int SUCCESS = 0;
         private static final int RUN_ERROR = 1;
         private static final int CONFIGURATION_ERROR = 2;
+        private static final int OUT_OF_SYNC = 1;
 
         private final Execution execution;
 
@@ -85,6 +86,10 @@ public record Execution(
             return assertExitCodeIs(RUN_ERROR);
         }
 
+        public OutputAssert reportLinksOutOfSync() {
+            return assertExitCodeIs(OUT_OF_SYNC);
+        }
+
         private OutputAssert assertExitCodeIs(int exitCode) {
             assertThat(execution.exitCode())
                     .withFailMessage(
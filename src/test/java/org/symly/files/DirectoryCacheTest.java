@@ -0,0 +1,163 @@
+package org.symly.files;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DirectoryCacheTest {
+
+    private static final FileTime AN_HOUR_AGO = FileTime.from(Instant.now().minus(1, ChronoUnit.HOURS));
+    private static final FileTime TWO_HOURS_AGO = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+
+    private final FileSystemReader fsReader = new FileSystemReader.RealFileSystemReader();
+
+    @TempDir
+    private Path root;
+
+    private Path cacheFile;
+
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        cacheFile = root.resolve("cache/directories");
+        directory = Files.createDirectory(root.resolve("directory"));
+        Files.createFile(directory.resolve("file"));
+        Files.writeString(directory.resolve(".symlyignore"), "ignored");
+        Files.setLastModifiedTime(directory.resolve(".symlyignore"), TWO_HOURS_AGO);
+        Files.setLastModifiedTime(directory, TWO_HOURS_AGO);
+        DirectoryCache cache = DirectoryCache.load(cacheFile);
+        FileSystemReader reader = cache.reader(fsReader);
+        list(reader, directory);
+        lines(reader, directory.resolve(".symlyignore"));
+        cache.save();
+    }
+
+    @Test
+    void reader_shouldListDirectory_fromCache_whenDirectoryIsUnchanged() throws IOException {
+        // given
+        Files.createFile(directory.resolve("new-file"));
+        Files.setLastModifiedTime(directory, TWO_HOURS_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        // then
+        assertThat(list(reader, directory))
+                .containsExactly(directory.resolve(".symlyignore"), directory.resolve("file"));
+        assertThat(reader.readAttributes(directory.resolve("file")).isRegularFile())
+                .isTrue();
+        assertThat(reader.exists(directory.resolve("new-file"))).isFalse();
+    }
+
+    @Test
+    void reader_shouldListDirectory_fromFileSystem_whenDirectoryIsModified() throws IOException {
+        // given
+        Files.createFile(directory.resolve("new-file"));
+        Files.setLastModifiedTime(directory, AN_HOUR_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        // then
+        assertThat(list(reader, directory))
+                .containsExactly(
+                        directory.resolve(".symlyignore"), directory.resolve("file"), directory.resolve("new-file"));
+        assertThat(reader.exists(directory.resolve("new-file"))).isTrue();
+    }
+
+    @Test
+    void reader_shouldReadFile_fromCache_whenFileIsUnchanged() throws IOException {
+        // given
+        Files.writeString(directory.resolve(".symlyignore"), "modified");
+        Files.setLastModifiedTime(directory.resolve(".symlyignore"), TWO_HOURS_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        list(reader, directory);
+        // then
+        assertThat(lines(reader, directory.resolve(".symlyignore"))).containsExactly("ignored");
+    }
+
+    @Test
+    void reader_shouldReadFile_fromFileSystem_whenFileIsModified() throws IOException {
+        // given
+        Files.writeString(directory.resolve(".symlyignore"), "modified");
+        Files.setLastModifiedTime(directory.resolve(".symlyignore"), AN_HOUR_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        list(reader, directory);
+        // then
+        assertThat(lines(reader, directory.resolve(".symlyignore"))).containsExactly("modified");
+    }
+
+    @Test
+    void reader_shouldCheckSymbolicLinkTarget_fromFileSystem() throws IOException {
+        // given
+        Path target = Files.createDirectory(root.resolve("target"));
+        Path link = Files.createSymbolicLink(directory.resolve("link"), target);
+        Files.setLastModifiedTime(directory, AN_HOUR_AGO);
+        DirectoryCache cache = DirectoryCache.load(cacheFile);
+        list(cache.reader(fsReader), directory);
+        cache.save();
+        Files.delete(target);
+        Files.setLastModifiedTime(directory, AN_HOUR_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        // then
+        assertThat(list(reader, directory)).contains(link);
+        assertThat(reader.isSymbolicLink(link)).isTrue();
+        assertThat(reader.exists(link)).isFalse();
+        assertThat(reader.isDirectory(link)).isFalse();
+    }
+
+    @Test
+    void save_shouldKeepDirectories_notListedSinceLoaded() throws IOException {
+        // given
+        Path other = Files.createDirectory(root.resolve("other"));
+        Files.createFile(other.resolve("file"));
+        Files.setLastModifiedTime(other, TWO_HOURS_AGO);
+        DirectoryCache cache = DirectoryCache.load(cacheFile);
+        list(cache.reader(fsReader), other);
+        cache.save();
+        Files.createFile(directory.resolve("new-file"));
+        Files.setLastModifiedTime(directory, TWO_HOURS_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        // then
+        assertThat(list(reader, directory))
+                .containsExactly(directory.resolve(".symlyignore"), directory.resolve("file"));
+        assertThat(list(reader, other)).containsExactly(other.resolve("file"));
+    }
+
+    @Test
+    void load_shouldReturnEmptyCache_whenCacheFileIsInvalid() throws IOException {
+        // given
+        Files.writeString(cacheFile, "invalid");
+        Files.createFile(directory.resolve("new-file"));
+        Files.setLastModifiedTime(directory, TWO_HOURS_AGO);
+        // when
+        FileSystemReader reader = DirectoryCache.load(cacheFile).reader(fsReader);
+        // then
+        assertThat(list(reader, directory))
+                .containsExactly(
+                        directory.resolve(".symlyignore"), directory.resolve("file"), directory.resolve("new-file"));
+    }
+
+    private static List<Path> list(FileSystemReader reader, Path dir) throws IOException {
+        try (Stream<Path> paths = reader.list(dir)) {
+            return paths.toList();
+        }
+    }
+
+    private static List<String> lines(FileSystemReader reader, Path file) throws IOException {
+        try (Stream<String> lines = reader.lines(file)) {
+            return lines.toList();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package org.symly.files;
+
+import static org.symly.testing.Assertions.assertThat;
+import static org.symly.testing.Assertions.assertThatCode;
+
+import java.io.IOException;
+import java.nio.file.DirectoryNotEmptyException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.LinkOption;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class InMemoryFileSystemTest {
+
+    private final InMemoryFileSystem fileSystem = new InMemoryFileSystem();
+
+    @Test
+    void list_shouldReturnContent_sortedByName() throws IOException {
+        // given
+        fileSystem.createDirectories(Path.of("/root/b-dir"));
+        fileSystem.createFile(Path.of("/root/c-file"), "");
+        fileSystem.createSymbolicLink(Path.of("/root/a-link"), Path.of("c-file"));
+        // when
+        List<Path> content;
+        try (Stream<Path> list = fileSystem.list(Path.of("/root"))) {
+            content = list.toList();
+        }
+        // then
+        assertThat(content).containsExactly(Path.of("/root/a-link"), Path.of("/root/b-dir"), Path.of("/root/c-file"));
+    }
+
+    @Test
+    void reader_shouldFollowSymbolicLinks_unlessReadingTheLinkItself() throws IOException {
+        // given
+        fileSystem.createDirectories(Path.of("/root/dir"));
+        fileSystem.createFile(Path.of("/root/dir/file"), "first\nsecond");
+        fileSystem.createSymbolicLink(Path.of("/root/link"), Path.of("dir"));
+        // when/then
+        assertThat(fileSystem.isDirectory(Path.of("/root/link"))).isTrue();
+        assertThat(fileSystem.isSymbolicLink(Path.of("/root/link"))).isTrue();
+        assertThat(fileSystem.readAttributes(Path.of("/root/link")).isSymbolicLink())
+                .isTrue();
+        assertThat(fileSystem.readSymbolicLink(Path.of("/root/link"))).isEqualTo(Path.of("dir"));
+        assertThat(fileSystem.lines(Path.of("/root/link/file")).toList()).containsExactly("first", "second");
+        assertThat(fileSystem.exists(Path.of("/root/link/missing"))).isFalse();
+    }
+
+    @Test
+    void writer_shouldFail_asFileSystemWould() throws IOException {
+        // given
+        fileSystem.createDirectories(Path.of("/root/dir"));
+        fileSystem.createFile(Path.of("/root/dir/file"), "");
+        // when/then
+        assertThatCode(() -> {
+                    fileSystem.deleteIfExists(Path.of("/root/dir"));
+                    return null;
+                })
+                .throwsThrowableOfType(DirectoryNotEmptyException.class);
+        assertThatCode(() -> {
+                    fileSystem.createSymbolicLink(Path.of("/root/dir/file"), Path.of("/target"));
+                    return null;
+                })
+                .throwsThrowableOfType(FileAlreadyExistsException.class);
+        fileSystem.deleteIfExists(Path.of("/root/dir/file"));
+        fileSystem.deleteIfExists(Path.of("/root/dir"));
+        fileSystem.deleteIfExists(Path.of("/root/missing/file"));
+        assertThat(fileSystem.exists(Path.of("/root/dir"))).isFalse();
+    }
+
+    @Test
+    void snapshot_shouldReadFileTree_andNotWriteToIt(@TempDir Path root) throws IOException {
+        // given
+        Files.createDirectories(root.resolve("dir"));
+        Files.writeString(root.resolve("dir/file"), "content");
+        Files.createSymbolicLink(root.resolve("link"), root.resolve("dir/file"));
+        // when
+        InMemoryFileSystem snapshot = InMemoryFileSystem.snapshot(new FileSystemReader.RealFileSystemReader(), root);
+        snapshot.deleteIfExists(root.resolve("link"));
+        snapshot.createSymbolicLink(root.resolve("dir/new-link"), root.resolve("link"));
+        // then
+        assertThat(snapshot.lines(root.resolve("dir/file")).toList()).containsExactly("content");
+        assertThat(snapshot.isSymbolicLink(root.resolve("dir/new-link"))).isTrue();
+        assertThat(snapshot.exists(root.resolve("link"))).isFalse();
+        assertThat(Files.isSymbolicLink(root.resolve("link"))).isTrue();
+        assertThat(Files.exists(root.resolve("dir/new-link"), LinkOption.NOFOLLOW_LINKS))
+                .isFalse();
+    }
+}
@@ -1,7 +1,10 @@
 package org.symly.files;
 
 import java.io.IOException;
+import java.nio.file.NoSuchFileException;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
@@ -58,6 +61,56 @@ record Directory(Path path) implements FSEntry {}
 
 record Symlink(Path path, Path target) implements FSEntry {}
 
+record FSEntryAttributes(FSEntry entry) implements BasicFileAttributes {
+
+    private static final FileTime EPOCH = FileTime.fromMillis(0L);
+
+    @Override
+    public FileTime lastModifiedTime() {
+        return EPOCH;
+    }
+
+    @Override
+    public FileTime lastAccessTime() {
+        return EPOCH;
+    }
+
+    @Override
+    public FileTime creationTime() {
+        return EPOCH;
+    }
+
+    @Override
+    public boolean isRegularFile() {
+        return entry instanceof File;
+    }
+
+    @Override
+    public boolean isDirectory() {
+        return entry instanceof Directory;
+    }
+
+    @Override
+    public boolean isSymbolicLink() {
+        return entry instanceof Symlink;
+    }
+
+    @Override
+    public boolean isOther() {
+        return false;
+    }
+
+    @Override
+    public long size() {
+        return entry instanceof File file ? file.content().length() : 0L;
+    }
+
+    @Override
+    public Object fileKey() {
+        return null;
+    }
+}
+
 class FileSystemReaderStub implements FileSystemReader {
 
     private final Map<Path, FSEntry> fsEntries;
@@ -132,4 +185,13 @@ class FileSystemReaderStub implements FileSystemReader {
         Path absolutePath = path.toAbsolutePath();
         return fsEntries.keySet().stream().filter(p -> p.startsWith(absolutePath));
     }
+
+    @Override
+    public BasicFileAttributes readAttributes(Path path) throws IOException {
+        FSEntry fsEntry = fsEntries.get(path.toAbsolutePath());
+        if (fsEntry == null) {
+            throw new NoSuchFileException(path.toString());
+        }
+        return new FSEntryAttributes(fsEntry);
+    }
 }
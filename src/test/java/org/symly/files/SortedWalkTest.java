@@ -0,0 +1,69 @@
+package org.symly.files;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.symly.files.SortedFileVisitor.Visit;
+
+class SortedWalkTest {
+
+    private final IoMock ioMock = new IoMock();
+
+    @Test
+    void walkSorted_shouldWalkDepthFirst_inWalkOrder() {
+        // given
+        Path root = Path.of("/root");
+        ioMock.file(root.resolve("c"));
+        ioMock.file(root.resolve("a-b"));
+        ioMock.file(root.resolve("a/b"));
+        ioMock.file(root.resolve("a/a/a"));
+        FileSystemReader fsReader = ioMock.buildFileSystemReader();
+        // when
+        Stream<Path> paths = fsReader.walkSorted(
+                root, (path, attrs) -> attrs.isDirectory() ? Visit.withContent(path) : Visit.of(path));
+        // then
+        assertThat(paths)
+                .containsExactly(
+                        root,
+                        root.resolve("a"),
+                        root.resolve("a/a"),
+                        root.resolve("a/a/a"),
+                        root.resolve("a/b"),
+                        root.resolve("a-b"),
+                        root.resolve("c"));
+    }
+
+    @Test
+    void walkSorted_shouldNotWalkContent_whenNotRequestedByTheVisitor() {
+        // given
+        Path root = Path.of("/root");
+        ioMock.file(root.resolve("a/b"));
+        ioMock.file(root.resolve("c/d"));
+        FileSystemReader fsReader = ioMock.buildFileSystemReader();
+        // when
+        Stream<Path> paths = fsReader.walkSorted(root, (path, attrs) -> {
+            if (path.endsWith("c")) {
+                return Visit.skip();
+            }
+            return attrs.isDirectory() ? Visit.withContent(path) : Visit.of(path);
+        });
+        // then
+        assertThat(paths).containsExactly(root, root.resolve("a"), root.resolve("a/b"));
+    }
+
+    @Test
+    void walkOrder_shouldCompare_pathsNameByName() {
+        // given
+        List<Path> paths = Stream.of("a-b", "a/b", "a", "b", "a/b/c", "")
+                .map(Path::of)
+                .sorted(FileSystemReader.WALK_ORDER)
+                .toList();
+        // when/then
+        assertThat(paths)
+                .containsExactly(
+                        Path.of(""), Path.of("a"), Path.of("a/b"), Path.of("a/b/c"), Path.of("a-b"), Path.of("b"));
+    }
+}
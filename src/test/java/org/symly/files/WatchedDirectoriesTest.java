@@ -0,0 +1,96 @@
+package org.symly.files;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class WatchedDirectoriesTest {
+
+    private static final long CHANGES_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    private final WatchedDirectories watchedDirectories = WatchedDirectories.create();
+
+    private final FileSystemReader reader = watchedDirectories.reader(new FileSystemReader.RealFileSystemReader());
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Files.createFile(directory.resolve("file"));
+        Files.writeString(directory.resolve(".symlyignore"), "ignored");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        watchedDirectories.close();
+    }
+
+    @Test
+    void reader_shouldListDirectory_fromMemory_untilChangesAreProcessed() throws IOException {
+        // given
+        list(directory);
+        // when
+        Files.createFile(directory.resolve("new-file"));
+        // then
+        assertThat(list(directory)).containsExactly(directory.resolve(".symlyignore"), directory.resolve("file"));
+        awaitChanges();
+        assertThat(list(directory))
+                .containsExactly(
+                        directory.resolve(".symlyignore"), directory.resolve("file"), directory.resolve("new-file"));
+    }
+
+    @Test
+    void reader_shouldReadFile_fromMemory_untilChangesAreProcessed() throws IOException {
+        // given
+        lines(directory.resolve(".symlyignore"));
+        // when
+        Files.writeString(directory.resolve(".symlyignore"), "modified");
+        // then
+        assertThat(lines(directory.resolve(".symlyignore"))).containsExactly("ignored");
+        awaitChanges();
+        assertThat(lines(directory.resolve(".symlyignore"))).containsExactly("modified");
+    }
+
+    @Test
+    void pollChanges_shouldReportNothing_whenNothingChanged() throws IOException {
+        // given
+        list(directory);
+        // when
+        boolean changed = watchedDirectories.pollChanges();
+        // then
+        assertThat(changed).isFalse();
+    }
+
+    private void awaitChanges() {
+        long deadline = System.currentTimeMillis() + CHANGES_TIMEOUT_MILLIS;
+        // Some watch services poll the file system periodically instead of being notified
+        while (!watchedDirectories.pollChanges()) {
+            if (System.currentTimeMillis() > deadline) {
+                throw new AssertionError("No changes reported");
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private List<Path> list(Path dir) throws IOException {
+        try (Stream<Path> paths = reader.list(dir)) {
+            return paths.sorted().toList();
+        }
+    }
+
+    private List<String> lines(Path file) throws IOException {
+        try (Stream<String> lines = reader.lines(file)) {
+            return lines.toList();
+        }
+    }
+}
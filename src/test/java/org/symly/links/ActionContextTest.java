@@ -0,0 +1,78 @@
+package org.symly.links;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.symly.files.FileSystemWriter;
+import org.symly.files.IoMock;
+
+class ActionContextTest {
+
+    private final IoMock ioMock = new IoMock();
+    private final RecordingFileSystemWriter fsWriter = new RecordingFileSystemWriter();
+
+    @Test
+    void createDirectories_shouldCreateMissingDirectory_onlyOnce() throws IOException {
+        // given
+        ActionContext context = new ActionContext(ioMock.buildFileSystemReader(), fsWriter);
+        // when
+        context.createDirectories(Path.of("/main-dir/dir"));
+        context.createDirectories(Path.of("/main-dir/dir"));
+        // then
+        assertThat(fsWriter.createdDirectories).containsExactly(Path.of("/main-dir/dir"));
+    }
+
+    @Test
+    void createDirectories_shouldNotCreateDirectory_whenDirectoryExists() throws IOException {
+        // given
+        ioMock.directory(Path.of("/main-dir/dir"));
+        ActionContext context = new ActionContext(ioMock.buildFileSystemReader(), fsWriter);
+        // when
+        context.createDirectories(Path.of("/main-dir/dir"));
+        // then
+        assertThat(fsWriter.createdDirectories).isEmpty();
+    }
+
+    @Test
+    void createDirectories_shouldCreateDirectory_whenDirectoryHasBeenDeleted() throws IOException {
+        // given
+        ActionContext context = new ActionContext(ioMock.buildFileSystemReader(), fsWriter);
+        context.directoryExists(Path.of("/main-dir/dir"));
+        // when
+        context.deleted(Path.of("/main-dir/dir"));
+        context.createDirectories(Path.of("/main-dir/dir"));
+        // then
+        assertThat(fsWriter.createdDirectories).containsExactly(Path.of("/main-dir/dir"));
+    }
+
+    @Test
+    void targetExists_shouldBeTrue_whenTargetHasBeenScanned() {
+        // given
+        ActionContext context = new ActionContext(ioMock.buildFileSystemReader(), fsWriter);
+        // when
+        context.targetScanned(Path.of("/repo/file"));
+        // then
+        assertThat(context.targetExists(Path.of("/repo/file"))).isTrue();
+        assertThat(context.targetExists(Path.of("/repo/other-file"))).isFalse();
+    }
+
+    private static class RecordingFileSystemWriter implements FileSystemWriter {
+
+        private final List<Path> createdDirectories = new ArrayList<>();
+
+        @Override
+        public void deleteIfExists(Path path) {}
+
+        @Override
+        public void createDirectories(Path path) {
+            createdDirectories.add(path);
+        }
+
+        @Override
+        public void createSymbolicLink(Path from, Path to) {}
+    }
+}
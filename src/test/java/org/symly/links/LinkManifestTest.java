@@ -0,0 +1,85 @@
+package org.symly.links;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.symly.files.FileSystemReader;
+import org.symly.repositories.Repositories;
+import org.symly.repositories.Repository;
+
+class LinkManifestTest {
+
+    private final FileSystemReader fsReader = new FileSystemReader.RealFileSystemReader();
+
+    @TempDir
+    private Path root;
+
+    private Path manifestFile;
+
+    private Path repository;
+
+    private Repositories repositories;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        manifestFile = root.resolve("state/manifest");
+        repository = Files.createDirectories(root.resolve("repository"));
+        Files.createDirectories(root.resolve("main/a/very/deep"));
+        repositories = Repositories.of(fsReader, List.of(Repository.of(repository)));
+    }
+
+    @Test
+    void save_shouldNotSaveManifest_whenIncomplete() {
+        // given
+        LinkManifest manifest = LinkManifest.load(manifestFile);
+        manifest.linked(new Link(root.resolve("main/file"), repository.resolve("file")), repository);
+        // when
+        manifest.save(false);
+        // then
+        assertThat(manifest.exists()).isFalse();
+        assertThat(LinkManifest.load(manifestFile).exists()).isFalse();
+    }
+
+    @Test
+    void links_shouldReturnManifestLinks_stillPointingToRepositories() throws IOException {
+        // given
+        Path deepLink = Files.createSymbolicLink(root.resolve("main/a/very/deep/link"), repository.resolve("deep"));
+        Path replacedLink = Files.createSymbolicLink(root.resolve("main/replaced"), root.resolve("elsewhere"));
+        Path link = Files.createSymbolicLink(root.resolve("main/link"), repository.resolve("link"));
+        LinkManifest manifest = LinkManifest.load(manifestFile);
+        manifest.linked(new Link(deepLink, repository.resolve("deep")), repository);
+        manifest.linked(new Link(replacedLink, repository.resolve("replaced")), repository);
+        manifest.linked(new Link(link, repository.resolve("link")), repository);
+        manifest.linked(new Link(root.resolve("main/deleted"), repository.resolve("deleted")), repository);
+        manifest.save(true);
+        // when
+        LinkManifest loaded = LinkManifest.load(manifestFile);
+        // then
+        assertThat(loaded.exists()).isTrue();
+        assertThat(loaded.links(fsReader, repositories))
+                .containsExactly(
+                        new Link(deepLink, repository.resolve("deep")), new Link(link, repository.resolve("link")));
+    }
+
+    @Test
+    void unlinked_shouldRemoveLink_fromManifest() throws IOException {
+        // given
+        Path link = Files.createSymbolicLink(root.resolve("main/link"), repository.resolve("link"));
+        LinkManifest manifest = LinkManifest.load(manifestFile);
+        manifest.linked(new Link(link, repository.resolve("link")), repository);
+        manifest.save(true);
+        // when
+        LinkManifest loaded = LinkManifest.load(manifestFile);
+        loaded.unlinked(link);
+        loaded.save(false);
+        // then
+        assertThat(LinkManifest.load(manifestFile).links(fsReader, repositories))
+                .isEmpty();
+    }
+}
@@ -0,0 +1,62 @@
+package org.symly.links;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.symly.files.InMemoryFileSystem;
+import org.symly.repositories.MainDirectory;
+import org.symly.repositories.Repositories;
+import org.symly.repositories.Repository;
+
+class OrphanLinksScannerTest {
+
+    private static final Path MAIN_DIRECTORY = Path.of("/home/user");
+
+    private static final Path REPOSITORY = Path.of("/repository");
+
+    @Test
+    void walk_shouldSkipLinks_replacedSinceTheirDirectoryWasListed() throws IOException {
+        // given
+        Path replaced = MAIN_DIRECTORY.resolve("a");
+        InMemoryFileSystem fileSystem = new InMemoryFileSystem() {
+            @Override
+            public Path readSymbolicLink(Path link) {
+                if (link.equals(replaced) && isSymbolicLink(link)) {
+                    replaceByDirectory(link);
+                }
+                return super.readSymbolicLink(link);
+            }
+
+            private void replaceByDirectory(Path path) {
+                try {
+                    deleteIfExists(path);
+                    createDirectories(path);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        };
+        fileSystem.createDirectories(REPOSITORY);
+        fileSystem.createDirectories(MAIN_DIRECTORY);
+        fileSystem.createSymbolicLink(replaced, REPOSITORY.resolve("a"));
+        fileSystem.createSymbolicLink(MAIN_DIRECTORY.resolve("b"), REPOSITORY.resolve("b"));
+        OrphanLinksScanner scanner = new OrphanLinksScanner(
+                fileSystem,
+                Repositories.of(fileSystem, List.of(Repository.of(REPOSITORY))),
+                Set.of(MAIN_DIRECTORY)::contains,
+                OrphanLookup.of(MainDirectory.of(MAIN_DIRECTORY), 2));
+        // when
+        List<Link> orphanLinks;
+        try (Stream<Link> links = fileSystem.walkSorted(MAIN_DIRECTORY, scanner)) {
+            orphanLinks = links.toList();
+        }
+        // then
+        assertThat(orphanLinks).containsExactly(new Link(MAIN_DIRECTORY.resolve("b"), REPOSITORY.resolve("b")));
+    }
+}
@@ -1,10 +1,13 @@
 package org.symly.repositories;
 
 import static org.symly.testing.Assertions.assertThat;
+import static org.symly.testing.Assertions.assertThatCode;
 
 import java.nio.file.Path;
 import java.util.List;
+import java.util.Map;
 import org.junit.jupiter.api.Test;
+import org.symly.cli.SymlyExecutionException;
 import org.symly.files.FileSystemReader;
 
 class ContextConfigTest {
@@ -20,6 +23,11 @@ class ContextConfigTest {
         assertThat(config).isNotNull();
         assertThat(config.directory()).isEmpty();
         assertThat(config.repositories()).isEmpty();
+        assertThat(config.parallel()).isFalse();
+        assertThat(config.cache()).isFalse();
+        assertThat(config.manifest()).isFalse();
+        assertThat(config.orphanExclusions()).isEmpty();
+        assertThat(config.orphanMaxDepthOverrides()).isEqualTo(Map.of());
     }
 
     @Test
@@ -49,4 +57,60 @@ class ContextConfigTest {
         assertThat(config.repositories())
                 .isEqualTo(List.of(path.resolve("first"), Path.of("/second"), PathAdapter.convert("~/third")));
     }
+
+    @Test
+    void syncConfig_shouldRead_parallel() {
+        // given/when
+        ContextConfig config = ContextConfig.read(fsReader, path.resolve("symly-multi-repos.config"));
+        // then
+        assertThat(config).isNotNull();
+        assertThat(config.parallel()).isTrue();
+    }
+
+    @Test
+    void syncConfig_shouldRead_cache() {
+        // given/when
+        ContextConfig config = ContextConfig.read(fsReader, path.resolve("symly-multi-repos.config"));
+        // then
+        assertThat(config).isNotNull();
+        assertThat(config.cache()).isTrue();
+    }
+
+    @Test
+    void syncConfig_shouldRead_manifest() {
+        // given/when
+        ContextConfig config = ContextConfig.read(fsReader, path.resolve("symly-multi-repos.config"));
+        // then
+        assertThat(config).isNotNull();
+        assertThat(config.manifest()).isTrue();
+    }
+
+    @Test
+    void syncConfig_shouldRead_orphanMaxDepthOverrides() {
+        // given/when
+        ContextConfig config = ContextConfig.read(fsReader, path.resolve("symly-multi-repos.config"));
+        // then
+        assertThat(config).isNotNull();
+        assertThat(config.orphanMaxDepthOverrides())
+                .isEqualTo(Map.of(Path.of(".config"), 4, Path.of(".local/share"), 1));
+    }
+
+    @Test
+    void syncConfig_shouldFail_whenOrphanMaxDepthOverrideHasNoDirectory() {
+        // given
+        ContextConfig config = ContextConfig.read(fsReader, path.resolve("symly-invalid-overrides.config"));
+        // when/then
+        assertThatCode(config::orphanMaxDepthOverrides)
+                .throwsThrowableOfType(SymlyExecutionException.class)
+                .hasMessage("Invalid orphans.max-depth.overrides entry '3', expected <directory>:<max-depth>");
+    }
+
+    @Test
+    void syncConfig_shouldRead_orphanExclusions() {
+        // given/when
+        ContextConfig config = ContextConfig.read(fsReader, path.resolve("symly-multi-repos.config"));
+        // then
+        assertThat(config).isNotNull();
+        assertThat(config.orphanExclusions()).isEqualTo(List.of(".cache", "**/node_modules"));
+    }
 }
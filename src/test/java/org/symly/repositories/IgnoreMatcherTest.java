@@ -0,0 +1,111 @@
+package org.symly.repositories;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class IgnoreMatcherTest {
+
+    @Test
+    void none_shouldNotMatch_anyName() {
+        // given/when
+        var matcher = IgnoreMatcher.NONE;
+        // then
+        assertThat(matcher.matches("file")).isFalse();
+        assertThat(matcher.matches("")).isFalse();
+    }
+
+    @Test
+    void matches_shouldMatch_staticRules() {
+        // given/when
+        var matcher = matcher(".DS_Store", "fi\\E.\\Qle");
+        // then
+        assertThat(matcher.matches(".DS_Store")).isTrue();
+        assertThat(matcher.matches("fi\\E.\\Qle")).isTrue();
+        assertThat(matcher.matches(".DS_Store2")).isFalse();
+        assertThat(matcher.matches("file")).isFalse();
+    }
+
+    @Test
+    void matches_shouldMatch_prefixRules() {
+        // given/when
+        var matcher = matcher("log-*", "l*");
+        // then
+        assertThat(matcher.matches("log-")).isTrue();
+        assertThat(matcher.matches("log-1")).isTrue();
+        assertThat(matcher.matches("lag")).isTrue();
+        assertThat(matcher.matches("file")).isFalse();
+    }
+
+    @Test
+    void matches_shouldMatch_suffixRules() {
+        // given/when
+        var matcher = matcher("*.log", "*.tmp");
+        // then
+        assertThat(matcher.matches(".log")).isTrue();
+        assertThat(matcher.matches("file.log")).isTrue();
+        assertThat(matcher.matches("file.tmp")).isTrue();
+        assertThat(matcher.matches("file.log.gz")).isFalse();
+    }
+
+    @Test
+    void matches_shouldMatch_otherPatternRules() {
+        // given/when
+        var matcher = matcher("a*b", "*middle*");
+        // then
+        assertThat(matcher.matches("ab")).isTrue();
+        assertThat(matcher.matches("a-b")).isTrue();
+        assertThat(matcher.matches("in-the-middle-of")).isTrue();
+        assertThat(matcher.matches("ba")).isFalse();
+    }
+
+    @Test
+    void matches_shouldMatch_wildcardRule() {
+        // given/when
+        var matcher = matcher("*");
+        // then
+        assertThat(matcher.matches("anything")).isTrue();
+    }
+
+    @Test
+    void matches_shouldMatch_regexRules() {
+        // given/when
+        var matcher = IgnoreMatcher.NONE.with(List.of(IgnoreRule.ofRegex("^[0-9]+$")));
+        // then
+        assertThat(matcher.matches("123")).isTrue();
+        assertThat(matcher.matches("12a")).isFalse();
+    }
+
+    @Test
+    void with_shouldInherit_parentRules() {
+        // given
+        var parent = matcher(".git", "*.log");
+        // when
+        var matcher = parent.with(parse("node_modules"));
+        // then
+        assertThat(matcher.matches(".git")).isTrue();
+        assertThat(matcher.matches("file.log")).isTrue();
+        assertThat(matcher.matches("node_modules")).isTrue();
+        assertThat(parent.matches("node_modules")).isFalse();
+    }
+
+    @Test
+    void with_shouldReturnSameMatcher_whenThereAreNoRules() {
+        // given
+        var parent = matcher(".git");
+        // when
+        var matcher = parent.with(List.of());
+        // then
+        assertThat(matcher).isEqualTo(parent);
+    }
+
+    private IgnoreMatcher matcher(String... lines) {
+        return IgnoreMatcher.NONE.with(parse(lines));
+    }
+
+    private List<IgnoreRule> parse(String... lines) {
+        return IgnoreList.parse(Arrays.stream(lines));
+    }
+}
@@ -1,15 +1,28 @@
 package org.symly.repositories;
 
+import static org.symly.links.Configuration.symlinkMarker;
 import static org.symly.testing.Assertions.assertThat;
+import static org.symly.testing.Assertions.assertThatCode;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.symly.files.DirectoryCache;
 import org.symly.files.FileSystemReader;
 import org.symly.files.IoMock;
 import org.symly.links.Link;
+import org.symly.repositories.MergedLayers.LayeredEntry;
 
 class RepositoriesTest {
 
@@ -43,6 +56,22 @@ class RepositoriesTest {
                 .isFalse();
     }
 
+    @Test
+    void repository_shouldReturn_repositoryContainingPath_withHighestPriority() {
+        // given
+        Repository repo1 = repo("/symly/repo1", List.of(), List.of());
+        Repository nested = repo("/symly/repo1/nested", List.of(), List.of());
+        Repository repo2 = repo("/symly/repo2", List.of(), List.of());
+        Repositories repositories = Repositories.of(ioMock.buildFileSystemReader(), List.of(repo1, nested, repo2));
+        // when/then
+        assertThat(repositories.repository(Path.of("/symly/repo1/file"))).hasValue(repo1);
+        assertThat(repositories.repository(Path.of("/symly/repo1/nested/file"))).hasValue(nested);
+        assertThat(repositories.repository(Path.of("/symly/repo1/nested"))).hasValue(nested);
+        assertThat(repositories.repository(Path.of("/symly/repo2"))).hasValue(repo2);
+        assertThat(repositories.repository(Path.of("/symly/repo"))).isEmpty();
+        assertThat(repositories.repository(Path.of("/symly"))).isEmpty();
+    }
+
     @Test
     void allDirectoriesNames_shouldReturn_allDirectoriesNames_inAllRepositories() {
         // given
@@ -130,6 +159,114 @@ class RepositoriesTest {
                         link("/symly/main/dir/file2", "/symly/layer0/dir/file2"));
     }
 
+    @Test
+    void links_shouldReturn_sameLinks_whenScannedInParallel() {
+        // given
+        ioMock.file(Path.of("/symly/layer0/foo"));
+        ioMock.file(Path.of("/symly/layer0/dir/file1"));
+        ioMock.file(Path.of("/symly/layer0/dir/file2"));
+        ioMock.file(Path.of("/symly/layer0/dir/nested/.symlink"));
+        ioMock.file(Path.of("/symly/layer0/dir/nested/file"));
+        ioMock.file(Path.of("/symly/layer1/bar"));
+        ioMock.file(Path.of("/symly/layer1/dir/file1"));
+        ioMock.file(Path.of("/symly/layer1/dir/nested/file"));
+        FileSystemReader fsReader = ioMock.buildFileSystemReader();
+        List<Repository> layers =
+                List.of(Repository.of(Path.of("/symly/layer0")), Repository.of(Path.of("/symly/layer1")));
+        // when
+        List<Link> links =
+                Repositories.of(fsReader, layers, true).links(MAIN_DIR).toList();
+        // then
+        assertThat(links)
+                .containsExactly(
+                        link("/symly/main/bar", "/symly/layer1/bar"),
+                        link("/symly/main/dir/file1", "/symly/layer1/dir/file1"),
+                        link("/symly/main/dir/file2", "/symly/layer0/dir/file2"),
+                        link("/symly/main/dir/nested", "/symly/layer0/dir/nested"),
+                        link("/symly/main/dir/nested/file", "/symly/layer1/dir/nested/file"),
+                        link("/symly/main/foo", "/symly/layer0/foo"));
+        assertThat(links)
+                .isEqualTo(
+                        Repositories.of(fsReader, layers, false).links(MAIN_DIR).toList());
+    }
+
+    @Test
+    void scan_shouldProvide_linksDirectoriesAndMarkers_fromASingleScanOfEachRepository() {
+        // given
+        TestRepository repo1 = new TestRepository(
+                "/symly/repo1",
+                List.of("dir", "dir/nested"),
+                List.of("file", "dir/file", "dir/nested/.symlink", "dir/nested/foo"));
+        TestRepository repo2 = new TestRepository("/symly/repo2", List.of("other-dir"), List.of("other-dir/file"));
+        Repositories repositories = Repositories.of(ioMock.buildFileSystemReader(), List.of(repo1, repo2));
+        // when
+        RepositoriesScan scan = repositories.scan();
+        Stream<Link> links = scan.links(MAIN_DIR);
+        // then
+        assertThat(scan.directoriesNames())
+                .containsExactly(Path.of("dir"), Path.of("dir/nested"), Path.of("other-dir"));
+        assertThat(scan.markedDirectoriesNames()).containsExactly(Path.of("dir/nested"));
+        assertThat(links)
+                .containsExactly(
+                        link("/symly/main/dir/file", "/symly/repo1/dir/file"),
+                        link("/symly/main/dir/nested", "/symly/repo1/dir/nested"),
+                        link("/symly/main/file", "/symly/repo1/file"),
+                        link("/symly/main/other-dir/file", "/symly/repo2/other-dir/file"));
+        assertThat(repo1.scans).isEqualTo(1);
+        assertThat(repo2.scans).isEqualTo(1);
+    }
+
+    @Test
+    void saveCache_shouldSaveCache_whenLinksAreOnlyPartlyConsumed(@TempDir Path root) throws IOException {
+        // given
+        Path repo = Files.createDirectories(root.resolve("repo"));
+        Files.createFile(repo.resolve("a"));
+        Files.createFile(repo.resolve("b"));
+        Files.setLastModifiedTime(repo, FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS)));
+        Path cacheFile = root.resolve("cache/directories");
+        Repositories repositories = Repositories.of(
+                new FileSystemReader.RealFileSystemReader(),
+                List.of(Repository.of(repo)),
+                false,
+                DirectoryCache.load(cacheFile));
+        try (Stream<Link> links = repositories.links(MainDirectory.of(root.resolve("home")))) {
+            links.findFirst();
+        }
+        // when
+        repositories.saveCache();
+        // then
+        assertThat(Files.exists(cacheFile)).isTrue();
+    }
+
+    @Test
+    void directoriesLookup_shouldOnlyScanTheRepositories_upToTheLookedUpName() {
+        // given
+        List<LayeredEntry> entries = List.of(
+                entry("a", RepositoryEntry.Type.DIRECTORY),
+                entry("a/b", RepositoryEntry.Type.DIRECTORY),
+                entry("a/b/c", RepositoryEntry.Type.FILE),
+                entry("d", RepositoryEntry.Type.DIRECTORY),
+                entry("e", RepositoryEntry.Type.FILE));
+        AtomicInteger scanned = new AtomicInteger();
+        RepositoriesScan scan = new RepositoriesScan(
+                () -> entries.stream().peek(e -> scanned.incrementAndGet()).iterator());
+        // when
+        Predicate<Path> lookup = scan.directoriesLookup();
+        // then
+        assertThat(lookup.test(Path.of("a"))).isTrue();
+        assertThat(scanned.get()).isEqualTo(1);
+        assertThat(lookup.test(Path.of("a/b/x"))).isFalse();
+        assertThat(scanned.get()).isEqualTo(4);
+        assertThat(lookup.test(Path.of("d"))).isTrue();
+        assertThat(scanned.get()).isEqualTo(4);
+        assertThatCode(scan::directoriesNames).throwsThrowableOfType(IllegalStateException.class);
+    }
+
+    private static LayeredEntry entry(String name, RepositoryEntry.Type type) {
+        return new LayeredEntry(
+                RepositoryEntry.of(Path.of(name), Path.of("/symly/repo").resolve(name), type), 0);
+    }
+
     private Link link(String source, String target) {
         return Link.of(Path.of(source), Path.of(target));
     }
@@ -142,6 +279,7 @@ class RepositoriesTest {
 
         private final Collection<String> directories;
         private final Collection<String> files;
+        private int scans = 0;
 
         public TestRepository(String path, Collection<String> directories, Collection<String> files) {
             super(Path.of(path));
@@ -151,12 +289,22 @@ class RepositoriesTest {
 
         @Override
         Stream<RepositoryEntry> entries(FileSystemReader fsReader) {
+            scans++;
             return Stream.concat(
-                    entries(directories, RepositoryEntry.Type.DIRECTORY), entries(files, RepositoryEntry.Type.FILE));
+                            entries(directories, RepositoryEntry.Type.DIRECTORY),
+                            entries(files, RepositoryEntry.Type.FILE))
+                    .sorted(Comparator.comparing(RepositoryEntry::name, FileSystemReader.WALK_ORDER));
         }
 
         private Stream<RepositoryEntry> entries(Collection<String> paths, RepositoryEntry.Type type) {
-            return paths.stream().map(Path::of).map(path -> RepositoryEntry.of(path, resolve(path), type));
+            return paths.stream()
+                    .map(Path::of)
+                    .map(path -> RepositoryEntry.of(path, resolve(path), type, isMarked(path, type)));
+        }
+
+        private boolean isMarked(Path path, RepositoryEntry.Type type) {
+            return type == RepositoryEntry.Type.DIRECTORY
+                    && files.contains(symlinkMarker(path).toString());
         }
     }
 }
@@ -2,9 +2,20 @@ package org.symly.repositories;
 
 import static org.symly.testing.Assertions.assertThat;
 
+import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.stream.Stream;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.symly.files.DirectoryCache;
+import org.symly.files.FileSystemReader;
 import org.symly.files.IoMock;
 
 class RepositoryTest {
@@ -125,6 +136,119 @@ class RepositoryTest {
                 .containsExactlyInAnyOrder(dir(repo, ""), dir(repo, "some"), file(repo, "some/file3.ext2"));
     }
 
+    @Test
+    void entries_shouldIgnoreDirectories_whenDefinedInIgnoreList() {
+        // given
+        Path repo = Path.of("repo");
+        ioMock.directory(repo);
+        ioMock.file(repo.resolve(".symlyignore"), "node_modules");
+        ioMock.file(repo.resolve("some/node_modules/package/file"));
+        ioMock.file(repo.resolve("some/file"));
+        // when
+        Stream<RepositoryEntry> entries = Repository.of(repo).entries(ioMock.buildFileSystemReader());
+        // then
+        assertThat(entries)
+                .hasSize(3)
+                .containsExactlyInAnyOrder(dir(repo, ""), dir(repo, "some"), file(repo, "some/file"));
+    }
+
+    @Test
+    void entries_shouldNotDescendIntoIgnoredDirectories() {
+        // given
+        Path repo = Path.of("repo");
+        ioMock.directory(repo);
+        ioMock.file(repo.resolve(".symlyignore"), "node_modules");
+        ioMock.file(repo.resolve("node_modules/package/file"));
+        ioMock.file(repo.resolve("file"));
+        RecordingFileSystemReader fsReader = new RecordingFileSystemReader(ioMock.buildFileSystemReader());
+        Repository repository = Repository.of(repo);
+        // when
+        Stream<RepositoryEntry> entries = repository.entries(fsReader);
+        // then
+        assertThat(entries).containsExactly(dir(repo, ""), file(repo, "file"));
+        assertThat(fsReader.listedDirectories).containsExactly(repository.toPath());
+    }
+
+    @Test
+    void entries_shouldBeReturned_inWalkOrder() {
+        // given
+        Path repo = Path.of("repo");
+        ioMock.directory(repo);
+        ioMock.file(repo.resolve("a-b"));
+        ioMock.file(repo.resolve("a/b"));
+        ioMock.file(repo.resolve("a/.symlink"));
+        ioMock.file(repo.resolve("c"));
+        // when
+        Stream<RepositoryEntry> entries = Repository.of(repo).entries(ioMock.buildFileSystemReader());
+        // then
+        assertThat(entries)
+                .containsExactly(
+                        dir(repo, ""),
+                        RepositoryEntry.of(
+                                Path.of("a"), repo.resolve("a").toAbsolutePath(), RepositoryEntry.Type.DIRECTORY, true),
+                        file(repo, "a/.symlink"),
+                        file(repo, "a/b"),
+                        file(repo, "a-b"),
+                        file(repo, "c"));
+    }
+
+    @Test
+    void entries_shouldDetectSymlinkMarkers_fromDirectoriesListing() {
+        // given
+        Path repo = Path.of("repo");
+        ioMock.directory(repo);
+        ioMock.file(repo.resolve("marked/.symlink"));
+        ioMock.file(repo.resolve("unmarked/file"));
+        RecordingFileSystemReader fsReader = new RecordingFileSystemReader(ioMock.buildFileSystemReader());
+        // when
+        Stream<RepositoryEntry> entries = Repository.of(repo).entries(fsReader);
+        // then
+        assertThat(entries)
+                .containsExactly(
+                        dir(repo, ""),
+                        RepositoryEntry.of(
+                                Path.of("marked"),
+                                repo.resolve("marked").toAbsolutePath(),
+                                RepositoryEntry.Type.DIRECTORY,
+                                true),
+                        file(repo, "marked/.symlink"),
+                        dir(repo, "unmarked"),
+                        file(repo, "unmarked/file"));
+        assertThat(fsReader.checkedPaths.stream().filter(path -> path.endsWith(".symlink")))
+                .isEmpty();
+    }
+
+    @Test
+    void entries_shouldNotQueryUnchangedDirectories_whenReadThroughWarmCache(@TempDir Path root) throws IOException {
+        // given
+        Path repo = Files.createDirectories(root.resolve("repo"));
+        Files.writeString(repo.resolve(".symlyignore"), "ignored");
+        Files.createFile(repo.resolve("ignored"));
+        Path dir = Files.createDirectory(repo.resolve("dir"));
+        Files.createFile(dir.resolve(".symlink"));
+        Files.createFile(dir.resolve("file"));
+        FileTime twoHoursAgo = FileTime.from(Instant.now().minus(2, ChronoUnit.HOURS));
+        for (Path path : List.of(repo.resolve(".symlyignore"), dir, repo)) {
+            Files.setLastModifiedTime(path, twoHoursAgo);
+        }
+        Path cacheFile = root.resolve("cache/directories");
+        DirectoryCache cache = DirectoryCache.load(cacheFile);
+        List<RepositoryEntry> expected = Repository.of(repo)
+                .entries(cache.reader(new FileSystemReader.RealFileSystemReader()))
+                .toList();
+        cache.save();
+        RecordingFileSystemReader fsReader = new RecordingFileSystemReader(new FileSystemReader.RealFileSystemReader());
+        // when
+        List<RepositoryEntry> entries = Repository.of(repo)
+                .entries(DirectoryCache.load(cacheFile).reader(fsReader))
+                .toList();
+        // then
+        assertThat(entries).isEqualTo(expected);
+        assertThat(fsReader.listedDirectories).isEmpty();
+        assertThat(fsReader.checkedPaths).isEmpty();
+        assertThat(fsReader.readFiles).isEmpty();
+    }
+
     private RepositoryEntry file(Path repo, String name) {
         return entry(RepositoryEntry.Type.FILE, repo, name);
     }
@@ -136,4 +260,64 @@ class RepositoryTest {
     private RepositoryEntry entry(RepositoryEntry.Type type, Path repo, String name) {
         return RepositoryEntry.of(Path.of(name), repo.resolve(name).toAbsolutePath(), type);
     }
+
+    private static class RecordingFileSystemReader implements FileSystemReader {
+
+        private final FileSystemReader delegate;
+        private final List<Path> listedDirectories = new ArrayList<>();
+        private final List<Path> checkedPaths = new ArrayList<>();
+        private final List<Path> readFiles = new ArrayList<>();
+
+        RecordingFileSystemReader(FileSystemReader delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public boolean exists(Path path) {
+            checkedPaths.add(path);
+            return delegate.exists(path);
+        }
+
+        @Override
+        public boolean isReadable(Path path) {
+            return delegate.isReadable(path);
+        }
+
+        @Override
+        public boolean isDirectory(Path path) {
+            return delegate.isDirectory(path);
+        }
+
+        @Override
+        public boolean isSymbolicLink(Path path) {
+            return delegate.isSymbolicLink(path);
+        }
+
+        @Override
+        public Path readSymbolicLink(Path link) {
+            return delegate.readSymbolicLink(link);
+        }
+
+        @Override
+        public Stream<String> lines(Path path) throws IOException {
+            readFiles.add(path);
+            return delegate.lines(path);
+        }
+
+        @Override
+        public Stream<Path> list(Path path) throws IOException {
+            listedDirectories.add(path);
+            return delegate.list(path);
+        }
+
+        @Override
+        public Stream<Path> walk(Path path) throws IOException {
+            return delegate.walk(path);
+        }
+
+        @Override
+        public BasicFileAttributes readAttributes(Path path) throws IOException {
+            return delegate.readAttributes(path);
+        }
+    }
 }
@@ -0,0 +1,89 @@
+package org.symly.stats;
+
+import static org.symly.testing.Assertions.assertThat;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.symly.stats.Stats.Format;
+import org.symly.stats.Stats.Phase;
+
+@SuppressWarnings({
+    "java:S100", // Method names should comply with a naming convention (test method names)
+})
+class StatsTest {
+
+    private static final Duration PHASE_DURATION = Duration.ofMillis(20);
+
+    private final Stats stats = new Stats();
+
+    @Test
+    void call_shouldNotBeRecorded_untilEnabled() {
+        // given
+        stats.call("exists", () -> true);
+        // when
+        stats.enable(Format.TEXT);
+        stats.call("exists", () -> true);
+        stats.call("exists", () -> true);
+        // then
+        assertThat(stats.count("exists")).isEqualTo(2L);
+        assertThat(stats.count("isDirectory")).isEqualTo(0L);
+    }
+
+    @Test
+    void time_shouldAccountNestedPhases_exclusively() {
+        // given
+        stats.enable(Format.TEXT);
+        // when
+        stats.time(Phase.LINK_COMPUTATION, () -> {
+            stats.time(Phase.REPOSITORY_SCAN, StatsTest::busyWait);
+            busyWait();
+        });
+        // then
+        long linkComputation = stats.nanos(Phase.LINK_COMPUTATION);
+        long repositoryScan = stats.nanos(Phase.REPOSITORY_SCAN);
+        assertThat(repositoryScan >= PHASE_DURATION.toNanos()).isTrue();
+        assertThat(linkComputation >= PHASE_DURATION.toNanos()).isTrue();
+        assertThat(linkComputation < 2 * PHASE_DURATION.toNanos())
+                .withFailMessage("The repository scan should not be accounted to the link computation")
+                .isTrue();
+    }
+
+    @Test
+    void timed_shouldAccountIteration_toPhase() {
+        // given
+        stats.enable(Format.TEXT);
+        // when
+        stats.timed(Phase.ORPHAN_SCAN, List.of(1, 2).stream().peek(i -> busyWait()))
+                .forEach(i -> {});
+        // then
+        assertThat(stats.nanos(Phase.ORPHAN_SCAN) >= 2 * PHASE_DURATION.toNanos())
+                .isTrue();
+    }
+
+    @Test
+    void report_shouldReportPhasesAndCalls_asJson() {
+        // given
+        stats.enable(Format.JSON);
+        stats.call("readSymbolicLink", () -> null);
+        StringWriter output = new StringWriter();
+        // when
+        stats.report(new PrintWriter(output));
+        // then
+        String report = output.toString();
+        assertThat(report.matches("(?s)\\{\"totalNanos\":\\d+,\"otherNanos\":-?\\d+,\"phases\":\\[.*\\],"
+                        + "\"calls\":\\[\\{\"operation\":\"readSymbolicLink\",\"count\":1,\"nanos\":\\d+}]}\\R"))
+                .withFailMessage("Unexpected report %s", report)
+                .isTrue();
+        assertThat(report.contains("{\"phase\":\"config load\",\"nanos\":0}")).isTrue();
+    }
+
+    private static void busyWait() {
+        long end = System.nanoTime() + PHASE_DURATION.toNanos();
+        while (System.nanoTime() < end) {
+            // busy waits so that the phase takes at least PHASE_DURATION
+        }
+    }
+}
@@ -85,6 +85,12 @@ public class Assertions {
             super(value);
         }
 
+        @Override
+        public BooleanContainer withFailMessage(String message, Object... args) {
+            super.withFailMessage(message, args);
+            return this;
+        }
+
         public BooleanContainer isTrue() {
             assertTrue(value, failMessage);
             return this;
@@ -0,0 +1,104 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * <p>Generates the list of the classes loaded by typical symly invocations, from which the launchers create an AppCDS
+ * archive on their first run.</p>
+ * <p>The training runs {@code link} then {@code status} on a small generated file tree, each in its own JVM started
+ * with {@code -XX:DumpLoadedClassList}, and merges the lists of loaded classes in their loading order.</p>
+ * <p>Usage: {@code java tools/cds/ClassListTrainer.java <symly-classpath> <class-list-file>}</p>
+ */
+public class ClassListTrainer {
+
+    private static final String MAIN_CLASS = "org.symly.cli.Main";
+    private static final List<List<String>> TRAINING_COMMANDS = List.of(
+        List.of("link", "--dir", "home", "--repositories", "repository", "overlay"),
+        List.of("status", "--dir", "home", "--repositories", "repository", "overlay"));
+    private static final long TIMEOUT = 60L;
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: ClassListTrainer <symly-classpath> <class-list-file>");
+        }
+        String classpath = absoluteClasspath(args[0]);
+        Path classList = Path.of(args[1]).toAbsolutePath();
+        Path workingDir = Files.createTempDirectory("symly-cds-training-");
+        try {
+            createTrainingTree(workingDir);
+            Set<String> classes = new LinkedHashSet<>();
+            for (List<String> command : TRAINING_COMMANDS) {
+                classes.addAll(train(workingDir, classpath, command));
+            }
+            Files.createDirectories(classList.getParent());
+            Files.write(classList, classes);
+        } finally {
+            delete(workingDir);
+        }
+    }
+
+    private static String absoluteClasspath(String classpath) {
+        return Stream.of(classpath.split(File.pathSeparator))
+            .map(entry -> Path.of(entry).toAbsolutePath().toString())
+            .collect(Collectors.joining(File.pathSeparator));
+    }
+
+    private static void createTrainingTree(Path workingDir) throws IOException {
+        Files.createDirectories(workingDir.resolve("home/.config"));
+        Files.createDirectories(workingDir.resolve("state"));
+        for (String repository : List.of("repository", "overlay")) {
+            Path root = Files.createDirectories(workingDir.resolve(repository));
+            Files.writeString(root.resolve(".symlyignore"), "*.bak\n");
+            Files.createDirectories(root.resolve(".config/app"));
+            Files.writeString(root.resolve(".config/app/settings"), repository);
+            Files.writeString(root.resolve(".config/app/settings.bak"), repository);
+            Files.writeString(root.resolve(".%s-profile".formatted(repository)), repository);
+        }
+        Files.writeString(workingDir.resolve("symly.config"), "directory=home\nrepositories=repository, overlay\n");
+    }
+
+    private static List<String> train(Path workingDir, String classpath, List<String> args)
+            throws IOException, InterruptedException {
+        Path classList = workingDir.resolve("%s.classlist".formatted(args.get(0)));
+        List<String> command = new ArrayList<>();
+        command.add(Path.of(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-XX:DumpLoadedClassList=%s".formatted(classList));
+        command.add("-Duser.home=%s".formatted(workingDir.resolve("home")));
+        command.add("--class-path");
+        command.add(classpath);
+        command.add(MAIN_CLASS);
+        command.addAll(args);
+        ProcessBuilder processBuilder = new ProcessBuilder(command)
+            .directory(workingDir.toFile())
+            .redirectOutput(ProcessBuilder.Redirect.DISCARD)
+            .redirectError(ProcessBuilder.Redirect.INHERIT);
+        processBuilder.environment().put("XDG_STATE_HOME", workingDir.resolve("state").toString());
+        Process process = processBuilder.start();
+        if (!process.waitFor(TIMEOUT, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+            throw new IllegalStateException("Training command %s did not finish in time".formatted(command));
+        }
+        if (process.exitValue() != 0) {
+            throw new IllegalStateException("Training command %s failed with exit code %d"
+                .formatted(command, process.exitValue()));
+        }
+        return Files.readAllLines(classList);
+    }
+
+    private static void delete(Path root) throws IOException {
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(path);
+            }
+        }
+    }
+}
@@ -33,9 +33,12 @@ ant -f tools/packaging/fedora/build.xml -Dproject.version="${version}" -v
 %install
 %define distdir target/distributions/fedora
 find .
-mkdir -p %{buildroot}/usr/bin %{buildroot}/usr/share/java/%{name} %{buildroot}/usr/share/man/man1/
+mkdir -p %{buildroot}/usr/bin %{buildroot}/usr/share/java/%{name} %{buildroot}/usr/share/%{name} %{buildroot}/usr/share/man/man1/
 install -p -m 755 %{distdir}/usr/bin/%{name} %{buildroot}/usr/bin/%{name}
 install -p -m 644 %{distdir}/usr/share/java/%{name}/%{name}.jar %{buildroot}/usr/share/java/%{name}/%{name}.jar
+install -p -m 644 %{distdir}/usr/share/%{name}/%{name}.classlist %{buildroot}/usr/share/%{name}/%{name}.classlist
+/usr/share/%{name}/%{name}-cds.sh
+install -p -m 644 %{distdir}/usr/share/%{name}/%{name}-cds.sh %{buildroot}/usr/share/%{name}/%{name}-cds.sh
 install -p -m 644 %{distdir}/usr/share/man/man1/%{name}.1.gz %{buildroot}/usr/share/man/man1/%{name}.1.gz
 install -p -m 644 %{distdir}/usr/share/man/man1/%{name}-link.1.gz %{buildroot}/usr/share/man/man1/%{name}-link.1.gz
 install -p -m 644 %{distdir}/usr/share/man/man1/%{name}-status.1.gz %{buildroot}/usr/share/man/man1/%{name}-status.1.gz
@@ -45,6 +48,8 @@ install -p -m 644 %{distdir}/usr/share/man/man1/%{name}-unlink.1.gz %{buildroot}
 %license LICENSE
 /usr/bin/%{name}
 /usr/share/java/%{name}/%{name}.jar
+/usr/share/%{name}/%{name}.classlist
+/usr/share/%{name}/%{name}-cds.sh
 /usr/share/man/man1/%{name}.1.gz
 /usr/share/man/man1/%{name}-link.1.gz
 /usr/share/man/man1/%{name}-status.1.gz
@@ -0,0 +1,68 @@
+#!/usr/bin/env sh
+# Reports the wall-clock time and the maximum resident set size of `symly status` run by the JVM launcher and by the
+# native executable, on a generated main directory linked to a repository of 1000 files.
+#
+# Usage: compare-startup.sh <jvm-launcher> <native-executable> [runs]
+set -e
+
+if [ $# -lt 2 ]; then
+    echo "Usage: $0 <jvm-launcher> <native-executable> [runs]" >&2
+    exit 2
+fi
+jvm_launcher="$(realpath "$1")"
+native_executable="$(realpath "$2")"
+runs="${3:-20}"
+
+if [ -x /usr/bin/time ] && /usr/bin/time -f "%M" true >/dev/null 2>&1; then
+    gnu_time=/usr/bin/time
+else
+    echo "GNU time is not available at /usr/bin/time: the resident set size will not be reported" >&2
+    gnu_time=""
+fi
+
+work_dir="$(mktemp -d)"
+trap 'rm -rf "$work_dir"' EXIT
+mkdir -p "$work_dir/home"
+i=0
+while [ "$i" -lt 1000 ]; do
+    mkdir -p "$work_dir/repository/dir-$((i / 100))"
+    : >"$work_dir/repository/dir-$((i / 100))/file-$i"
+    i=$((i + 1))
+done
+export XDG_CACHE_HOME="$work_dir/cache"
+export XDG_STATE_HOME="$work_dir/state"
+"$native_executable" link --dir "$work_dir/home" --repositories "$work_dir/repository" >/dev/null
+
+# Prints the mean time in milliseconds and the maximum resident set size in KiB of the runs of a command
+measure() {
+    # A first run lets the JVM launcher create its AppCDS archive in the background
+    "$1" status --dir "$work_dir/home" --repositories "$work_dir/repository" >/dev/null
+    sleep 2
+    total_ms=0
+    max_rss=0
+    run=0
+    while [ "$run" -lt "$runs" ]; do
+        start="$(date +%s%N)"
+        if [ -n "$gnu_time" ]; then
+            $gnu_time -o "$work_dir/rss" -f "%M" \
+                "$1" status --dir "$work_dir/home" --repositories "$work_dir/repository" >/dev/null
+        else
+            "$1" status --dir "$work_dir/home" --repositories "$work_dir/repository" >/dev/null
+        fi
+        end="$(date +%s%N)"
+        total_ms=$((total_ms + (end - start) / 1000000))
+        if [ -n "$gnu_time" ] && [ "$(cat "$work_dir/rss")" -gt "$max_rss" ]; then
+            max_rss="$(cat "$work_dir/rss")"
+        fi
+        run=$((run + 1))
+    done
+    if [ -n "$gnu_time" ]; then
+        printf "%-8s %10d %14d\n" "$2" $((total_ms / runs)) "$max_rss"
+    else
+        printf "%-8s %10d %14s\n" "$2" $((total_ms / runs)) "n/a"
+    fi
+}
+
+printf "%-8s %10s %14s\n" "symly" "time (ms)" "max RSS (KiB)"
+measure "$jvm_launcher" "jvm"
+measure "$native_executable" "native"